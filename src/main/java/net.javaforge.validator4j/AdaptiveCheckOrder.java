@@ -0,0 +1,208 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Execution order of the checks of a built {@link Validator} adapting to the observed cost and
+ * failure rate of the checks. Only checks of the same commutative group (see
+ * {@link Validator#addCommutativeChecks}) are reordered: they share a validation message, so
+ * their order doesn't change the validation result.
+ * <br><br>
+ * Roughly one of {@link #SAMPLE_RATE} validations is a sample: it executes all checks of the
+ * reached groups and records their duration and outcome. After every {@link #REORDER_INTERVAL}
+ * samples the checks of each group are sorted by <tt>cost / failure rate</tt>, which minimizes
+ * the expected cost of a group stopping at its first failed check.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+final class AdaptiveCheckOrder<T> {
+
+    static final int SAMPLE_RATE = 64;
+
+    static final int REORDER_INTERVAL = 256;
+
+    /**
+     * Lower bound of the failure rate used for ranking, so never failing checks are ordered by
+     * their cost.
+     */
+    private static final double MIN_FAILURE_RATE = 1e-3;
+
+    private final Checks<T> configured;
+
+    private volatile Checks<T> current;
+
+    private final AtomicLongArray nanos;
+
+    private final AtomicLongArray failures;
+
+    private final AtomicLongArray samples;
+
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    AdaptiveCheckOrder(Checks<T> configured) {
+        this.configured = configured;
+        this.current = configured;
+        this.nanos = new AtomicLongArray(configured.size());
+        this.failures = new AtomicLongArray(configured.size());
+        this.samples = new AtomicLongArray(configured.size());
+    }
+
+    /**
+     * Returns checks in the current execution order.
+     *
+     * @return checks in the current order.
+     */
+    Checks<T> current() {
+        return this.current;
+    }
+
+    /**
+     * Returns true, if the calling validation should be a sample.
+     *
+     * @return true, if the validation should be sampled.
+     */
+    boolean sample() {
+        return ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0;
+    }
+
+    /**
+     * Records a sampled execution of the check at the given position of the configured order.
+     *
+     * @param index     is an index of the check in the configured order.
+     * @param satisfied is true, if the check was successful.
+     * @param nanos     is a duration of the check.
+     */
+    void record(int index, boolean satisfied, long nanos) {
+        this.nanos.addAndGet(index, nanos);
+        this.samples.incrementAndGet(index);
+        if (!satisfied)
+            this.failures.incrementAndGet(index);
+    }
+
+    /**
+     * Completes a sampled validation, reordering the checks if due.
+     */
+    void sampled() {
+        if (this.sampleCount.incrementAndGet() % REORDER_INTERVAL == 0)
+            this.reorder();
+    }
+
+    /**
+     * Sorts the checks of each commutative group by their rank.
+     */
+    synchronized void reorder() {
+        Checks<T> configured = this.configured;
+        int size = configured.size();
+        Integer[] order = new Integer[size];
+        final double[] ranks = new double[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            ranks[i] = this.rank(i);
+        }
+
+        Comparator<Integer> byRank = new Comparator<Integer>() {
+            public int compare(Integer i1, Integer i2) {
+                return Double.compare(ranks[i1], ranks[i2]);
+            }
+        };
+
+        int start = 0;
+        while (start < size) {
+            int end = start + 1;
+            int group = configured.groups[start];
+            while (group >= 0 && end < size && configured.groups[end] == group)
+                end++;
+
+            if (end - start > 1)
+                Arrays.sort(order, start, end, byRank);
+
+            start = end;
+        }
+
+        this.current = configured.reorder(order);
+    }
+
+    /**
+     * Returns expected cost of the check per detected failure. Checks without samples keep their
+     * configured position in front of the group.
+     */
+    private double rank(int index) {
+        long samples = this.samples.get(index);
+        if (samples == 0)
+            return 0d;
+
+        double cost = (double) this.nanos.get(index) / samples;
+        double failureRate = (double) this.failures.get(index) / samples;
+        return cost / Math.max(failureRate, MIN_FAILURE_RATE);
+    }
+
+    /**
+     * Checks of a validator with their messages in a particular execution order.
+     */
+    static final class Checks<T> {
+
+        final IValidationCheck<T>[] checks;
+
+        final IValidationMessage[] messages;
+
+        /**
+         * Commutative group of each check or -1, if the check is not commutative.
+         */
+        final int[] groups;
+
+        /**
+         * Index of each check in the configured order.
+         */
+        final int[] indexes;
+
+        Checks(IValidationCheck<T>[] checks, IValidationMessage[] messages, int[] groups,
+               int[] indexes) {
+            this.checks = checks;
+            this.messages = messages;
+            this.groups = groups;
+            this.indexes = indexes;
+        }
+
+        int size() {
+            return this.checks.length;
+        }
+
+        /**
+         * Returns checks in the given order of the configured indexes.
+         */
+        private Checks<T> reorder(Integer[] order) {
+            IValidationCheck<T>[] checks = this.checks.clone();
+            IValidationMessage[] messages = this.messages.clone();
+            int[] groups = this.groups.clone();
+            int[] indexes = this.indexes.clone();
+            for (int i = 0; i < order.length; i++) {
+                checks[i] = this.checks[order[i]];
+                messages[i] = this.messages[order[i]];
+                groups[i] = this.groups[order[i]];
+                indexes[i] = this.indexes[order[i]];
+            }
+            return new Checks<T>(checks, messages, groups, indexes);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Result of a batch validation (see {@link BatchValidator}). Only the indexes of the invalid
+ * objects and their validation results are stored, so the memory footprint depends on the number
+ * of failures and not on the number of validated objects.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public final class BatchValidationResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long size;
+
+    private final int failureCount;
+
+    private final long[] failedIndexes;
+
+    private final ValidationResult[] failedResults;
+
+    BatchValidationResult(long size, int failureCount, long[] failedIndexes,
+                          ValidationResult[] failedResults) {
+        this.size = size;
+        this.failureCount = failureCount;
+        this.failedIndexes = failedIndexes;
+        this.failedResults = failedResults;
+    }
+
+    /**
+     * Returns number of validated objects.
+     *
+     * @return number of validated objects.
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Returns true, if all validated objects are valid. Otherwise returns false.
+     *
+     * @return true, if all validated objects are valid.
+     */
+    public boolean isValid() {
+        return this.failureCount == 0;
+    }
+
+    /**
+     * Returns true, if the object at the given index is valid. Otherwise returns false.
+     *
+     * @param index is an index of the validated object.
+     * @return true, if the object at the given index is valid.
+     */
+    public boolean isValid(long index) {
+        return this.indexOf(index) < 0;
+    }
+
+    /**
+     * Returns number of invalid objects.
+     *
+     * @return number of invalid objects.
+     */
+    public int getFailureCount() {
+        return this.failureCount;
+    }
+
+    /**
+     * Returns index of the <tt>n</tt>-th invalid object. Indexes are in ascending order.
+     *
+     * @param n is a number of the failure (0 &lt;= n &lt; {@link #getFailureCount()}).
+     * @return index of the <tt>n</tt>-th invalid object.
+     */
+    public long getFailedIndex(int n) {
+        this.assertFailure(n);
+        return this.failedIndexes[n];
+    }
+
+    /**
+     * Returns validation result of the <tt>n</tt>-th invalid object.
+     *
+     * @param n is a number of the failure (0 &lt;= n &lt; {@link #getFailureCount()}).
+     * @return validation result of the <tt>n</tt>-th invalid object.
+     */
+    public ValidationResult getFailedResult(int n) {
+        this.assertFailure(n);
+        return this.failedResults[n];
+    }
+
+    /**
+     * Returns ascending array of the indexes of all invalid objects.
+     *
+     * @return indexes of all invalid objects.
+     */
+    public long[] getFailedIndexes() {
+        return Arrays.copyOf(this.failedIndexes, this.failureCount);
+    }
+
+    /**
+     * Returns validation result of the object at the given index. For valid objects
+     * {@link ValidationResult#unmodifiableEmpty()} is returned.
+     *
+     * @param index is an index of the validated object.
+     * @return validation result of the object at the given index.
+     */
+    public ValidationResult getResult(long index) {
+        if (index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+
+        int n = this.indexOf(index);
+        return n >= 0 ? this.failedResults[n] : ValidationResult.unmodifiableEmpty();
+    }
+
+    private int indexOf(long index) {
+        return Arrays.binarySearch(this.failedIndexes, 0, this.failureCount, index);
+    }
+
+    private void assertFailure(int n) {
+        if (n < 0 || n >= this.failureCount)
+            throw new IndexOutOfBoundsException("Failure: " + n + ", Failures: "
+                    + this.failureCount);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(this.getClass().getSimpleName()).append("[size=").append(this.size)
+                .append(",failures=").append(this.failureCount).append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Collects failures of a (part of a) batch validation.
+     */
+    static final class Collector {
+
+        private long size;
+
+        private int failureCount;
+
+        private long[] failedIndexes = new long[0];
+
+        private ValidationResult[] failedResults = new ValidationResult[0];
+
+        /**
+         * Records result of the next validated object.
+         *
+         * @param result is a validation result of the object.
+         */
+        void add(ValidationResult result) {
+            if (result != null && result.isNotEmpty())
+                this.addFailure(this.size, result);
+
+            this.size++;
+        }
+
+        /**
+         * Appends failures collected by the given collector, which has validated the objects
+         * following the ones of this collector.
+         *
+         * @param other is a collector to append.
+         * @return this collector.
+         */
+        Collector append(Collector other) {
+            for (int i = 0; i < other.failureCount; i++)
+                this.addFailure(this.size + other.failedIndexes[i], other.failedResults[i]);
+
+            this.size += other.size;
+            return this;
+        }
+
+        BatchValidationResult toResult() {
+            return new BatchValidationResult(this.size, this.failureCount, this.failedIndexes,
+                    this.failedResults);
+        }
+
+        private void addFailure(long index, ValidationResult result) {
+            if (this.failureCount == this.failedIndexes.length) {
+                int capacity = Math.max(8, this.failureCount + (this.failureCount >> 1));
+                this.failedIndexes = Arrays.copyOf(this.failedIndexes, capacity);
+                this.failedResults = Arrays.copyOf(this.failedResults, capacity);
+            }
+            this.failedIndexes[this.failureCount] = index;
+            this.failedResults[this.failureCount] = result;
+            this.failureCount++;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Validates large batches of objects with the given validator. Only failures are recorded (see
+ * {@link BatchValidationResult}), so the memory footprint depends on the number of invalid
+ * objects and not on the size of the batch.
+ * <br><br>
+ * Example:
+ * <p/>
+ * <pre>
+ * BatchValidationResult result = new BatchValidator&lt;Bean&gt;(beanValidator)
+ *         .parallel(ForkJoinPool.commonPool())
+ *         .validateAll(beans);
+ * </pre>
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class BatchValidator<T> {
+
+    /**
+     * Minimal number of objects validated by a single fork-join task.
+     */
+    private static final long MIN_SPLIT_SIZE = 1024;
+
+    private final IValidator<T> validator;
+
+    private ForkJoinPool pool;
+
+    public BatchValidator(IValidator<T> validator) {
+        if (validator == null)
+            throw new IllegalArgumentException("Parameter 'validator' cannot be null!");
+
+        this.validator = validator;
+    }
+
+    /**
+     * Enables parallel validation: the input is split and validated by the given fork-join pool.
+     * The validator must be safe to use concurrently.
+     *
+     * @param pool is a fork-join pool to use.
+     * @return this batch validator.
+     */
+    public BatchValidator<T> parallel(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Validates all objects of the given iterable.
+     *
+     * @param objects is an iterable of the objects to validate.
+     * @return result of the batch validation (indexes are iteration positions).
+     */
+    public BatchValidationResult validateAll(Iterable<? extends T> objects) {
+        return this.validateAll(objects.spliterator());
+    }
+
+    /**
+     * Validates all objects of the given stream.
+     *
+     * @param objects is a stream of the objects to validate.
+     * @return result of the batch validation (indexes are encounter positions).
+     */
+    public BatchValidationResult validateAll(Stream<? extends T> objects) {
+        return this.validateAll(objects.spliterator());
+    }
+
+    /**
+     * Validates all objects of the given spliterator.
+     *
+     * @param objects is a spliterator of the objects to validate.
+     * @return result of the batch validation (indexes are encounter positions).
+     */
+    public BatchValidationResult validateAll(Spliterator<? extends T> objects) {
+        if (this.pool == null)
+            return this.validate(objects).toResult();
+
+        long estimatedSize = objects.estimateSize();
+        long splitSize = estimatedSize == Long.MAX_VALUE ? MIN_SPLIT_SIZE
+                : Math.max(MIN_SPLIT_SIZE, estimatedSize / (this.pool.getParallelism() * 4L));
+
+        return this.pool.invoke(new ValidationTask(objects, splitSize)).toResult();
+    }
+
+    private BatchValidationResult.Collector validate(Spliterator<? extends T> objects) {
+        final BatchValidationResult.Collector collector = new BatchValidationResult.Collector();
+        objects.forEachRemaining(new Consumer<T>() {
+            public void accept(T obj) {
+                collector.add(validator.validate(obj));
+            }
+        });
+        return collector;
+    }
+
+    /**
+     * Fork-join task validating a part of the input.
+     */
+    private final class ValidationTask extends RecursiveTask<BatchValidationResult.Collector> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<? extends T> objects;
+
+        private final long splitSize;
+
+        ValidationTask(Spliterator<? extends T> objects, long splitSize) {
+            this.objects = objects;
+            this.splitSize = splitSize;
+        }
+
+        @Override
+        protected BatchValidationResult.Collector compute() {
+            Spliterator<? extends T> prefix;
+            if (this.objects.estimateSize() <= this.splitSize
+                    || (prefix = this.objects.trySplit()) == null)
+                return validate(this.objects);
+
+            ValidationTask left = new ValidationTask(prefix, this.splitSize);
+            left.fork();
+            BatchValidationResult.Collector right =
+                    new ValidationTask(this.objects, this.splitSize).compute();
+            return left.join().append(right);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Simple thread-safe cache holding at most <tt>maxSize</tt> entries. If the cache is full,
+ * an arbitrary entry is evicted to make room for a new one.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+final class BoundedCache<K, V> {
+
+    private final ConcurrentMap<K, V> entries = new ConcurrentHashMap<K, V>();
+
+    private final int maxSize;
+
+    BoundedCache(int maxSize) {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("Parameter 'maxSize' cannot be less than 1!");
+
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns value cached for the given key or null, if there is no such value.
+     *
+     * @param key is a key to look up.
+     * @return cached value or null.
+     */
+    V get(K key) {
+        return this.entries.get(key);
+    }
+
+    /**
+     * Caches the given value, unless there is already a value cached for the key.
+     *
+     * @param key   is a key of the value.
+     * @param value is a value to cache.
+     * @return value cached for the key after this call (either the existing or the given one).
+     */
+    V putIfAbsent(K key, V value) {
+        if (this.entries.size() >= this.maxSize)
+            this.evictOne();
+
+        V existing = this.entries.putIfAbsent(key, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Returns number of cached entries.
+     *
+     * @return number of cached entries.
+     */
+    int size() {
+        return this.entries.size();
+    }
+
+    private void evictOne() {
+        Iterator<K> it = this.entries.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validator memoizing the validation results of the decorated validator. Results are cached by
+ * value equality in a bounded cache: at most <tt>maxSize</tt> values are kept, each for at most
+ * the configured time. Use it for values validated over and over again (e.g. country codes or
+ * email addresses); cached values must not change their equality after validation.
+ * <br><br>
+ * Time-dependent validators (see {@link ITimeDependent}), {@link Validator}s with time-dependent
+ * checks and {@link HierarchicalValidator}s with such validators at any nesting level (including
+ * their built and compiled forms) are never cached, they are always delegated to. Null values are
+ * not cached either.
+ * <br><br>
+ * Example:
+ * <p/>
+ * <pre>
+ * IValidator&lt;String&gt; countryValidator = new CachingValidator&lt;String&gt;(
+ *         Validator.of(IS_NOT_VALID, matches(countryPattern)), 10000, 10, TimeUnit.MINUTES);
+ * </pre>
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class CachingValidator<T> implements IValidator<T> {
+
+    private final IValidator<T> validator;
+
+    /**
+     * Cached results or null, if the validator is time-dependent.
+     */
+    private final MemoizationCache<T, ValidationResult> cache;
+
+    public CachingValidator(IValidator<T> validator, int maxSize, long expireAfter,
+                            TimeUnit unit) {
+        if (validator == null)
+            throw new IllegalArgumentException("Parameter 'validator' cannot be null!");
+
+        this.validator = validator;
+        this.cache = !Validator.isTimeDependent(validator)
+                ? new MemoizationCache<T, ValidationResult>(maxSize, unit.toNanos(expireAfter))
+                : null;
+    }
+
+    /**
+     * Returns validation check memoizing the outcomes of the given check (see
+     * {@link CachingValidator}). Time-dependent checks (see {@link ITimeDependent}) are not
+     * cached.
+     *
+     * @param <T>         is a generic type of the object to check.
+     * @param check       is a check to decorate.
+     * @param maxSize     is a maximal number of cached outcomes.
+     * @param expireAfter is a time an outcome is cached for.
+     * @param unit        is a unit of the <tt>expireAfter</tt> time.
+     * @return caching validation check.
+     */
+    public static <T> Check<T> of(IValidationCheck<T> check, int maxSize, long expireAfter,
+                                  TimeUnit unit) {
+        return new Check<T>(check, maxSize, expireAfter, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * Not empty results are copied on every call: like the results of {@link Validator} and
+     * {@link HierarchicalValidator}, they are modifiable, so callers may add messages to them
+     * without affecting the cached result. Empty results are not copied, the shared
+     * {@link ValidationResult#unmodifiableEmpty()} result is returned instead.
+     *
+     * @see IValidator#validate(java.lang.Object)
+     */
+    public ValidationResult validate(T obj) {
+        if (this.cache == null || obj == null)
+            return this.validator.validate(obj);
+
+        ValidationResult result = this.cache.get(obj);
+        if (result == null) {
+            result = this.validator.validate(obj);
+            result = result != null && result.isNotEmpty()
+                    ? new ValidationResult(result) : ValidationResult.unmodifiableEmpty();
+            this.cache.put(obj, result);
+        }
+
+        return result.isNotEmpty() ? new ValidationResult(result) : result;
+    }
+
+    /**
+     * Returns true, if the results of the decorated validator are cached.
+     *
+     * @return true, if results are cached.
+     */
+    public boolean isCaching() {
+        return this.cache != null;
+    }
+
+    /**
+     * Returns number of validations answered from the cache.
+     *
+     * @return number of cache hits.
+     */
+    public long getHitCount() {
+        return this.cache != null ? this.cache.getHitCount() : 0;
+    }
+
+    /**
+     * Returns number of validations delegated to the decorated validator because the value was
+     * not (or no longer) cached.
+     *
+     * @return number of cache misses.
+     */
+    public long getMissCount() {
+        return this.cache != null ? this.cache.getMissCount() : 0;
+    }
+
+    /**
+     * Returns number of results removed from the cache because it was full or the result
+     * expired.
+     *
+     * @return number of evictions.
+     */
+    public long getEvictionCount() {
+        return this.cache != null ? this.cache.getEvictionCount() : 0;
+    }
+
+    /**
+     * Validation check memoizing the outcomes of the decorated check (see
+     * {@link CachingValidator#of(IValidationCheck, int, long, TimeUnit)}).
+     */
+    public static final class Check<T> implements IValidationCheck<T> {
+
+        private final IValidationCheck<T> check;
+
+        /**
+         * Cached outcomes or null, if the check is time-dependent.
+         */
+        private final MemoizationCache<T, Boolean> cache;
+
+        Check(IValidationCheck<T> check, int maxSize, long expireAfter, TimeUnit unit) {
+            if (check == null)
+                throw new IllegalArgumentException("Parameter 'check' cannot be null!");
+
+            this.check = check;
+            this.cache = !(check instanceof ITimeDependent)
+                    ? new MemoizationCache<T, Boolean>(maxSize, unit.toNanos(expireAfter))
+                    : null;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @see IValidationCheck#isSatisfied(java.lang.Object)
+         */
+        public boolean isSatisfied(T obj) {
+            if (this.cache == null || obj == null)
+                return this.check.isSatisfied(obj);
+
+            Boolean satisfied = this.cache.get(obj);
+            if (satisfied == null) {
+                satisfied = this.check.isSatisfied(obj);
+                this.cache.put(obj, satisfied);
+            }
+            return satisfied;
+        }
+
+        /**
+         * Returns true, if the outcomes of the decorated check are cached.
+         *
+         * @return true, if outcomes are cached.
+         */
+        public boolean isCaching() {
+            return this.cache != null;
+        }
+
+        /**
+         * Returns number of checks answered from the cache.
+         *
+         * @return number of cache hits.
+         */
+        public long getHitCount() {
+            return this.cache != null ? this.cache.getHitCount() : 0;
+        }
+
+        /**
+         * Returns number of checks delegated to the decorated check because the value was not
+         * (or no longer) cached.
+         *
+         * @return number of cache misses.
+         */
+        public long getMissCount() {
+            return this.cache != null ? this.cache.getMissCount() : 0;
+        }
+
+        /**
+         * Returns number of outcomes removed from the cache because it was full or the outcome
+         * expired.
+         *
+         * @return number of evictions.
+         */
+        public long getEvictionCount() {
+            return this.cache != null ? this.cache.getEvictionCount() : 0;
+        }
+    }
+}
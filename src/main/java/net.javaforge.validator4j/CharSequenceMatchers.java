@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+/**
+ * Hand-written, single-pass matchers accepting exactly the same language as some of the
+ * {@link PredefinedPatterns}. The matchers run in linear time, never backtrack and don't
+ * allocate.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+final class CharSequenceMatchers {
+
+    /**
+     * Bit set of ASCII chars allowed in the local part of an email address: [_A-Za-z0-9-]
+     */
+    private static final long[] EMAIL_LOCAL_CHARS = asciiSet("_-0123456789"
+            + "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz");
+
+    /**
+     * Bit set of ASCII chars allowed in the domain part of an email address: [A-Za-z0-9-]
+     */
+    private static final long[] EMAIL_DOMAIN_CHARS = asciiSet("-0123456789"
+            + "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz");
+
+    /**
+     * Bit set of ASCII chars allowed in a telephone number. The {@link PredefinedPatterns#phone()}
+     * expression is wrapped into a character class, so it matches any non-empty sequence of the
+     * characters it is built of.
+     */
+    private static final long[] PHONE_CHARS = asciiSet(" ()*+,-/0123456789?{}");
+
+    private CharSequenceMatchers() {
+        // invisible constructor
+    }
+
+    /**
+     * Returns true, if the given char sequence matches {@link PredefinedPatterns#email()}.
+     *
+     * @param cs is a char sequence to test, not null.
+     * @return true, if the given char sequence is a valid email address.
+     */
+    static boolean isEmail(CharSequence cs) {
+        int len = cs.length();
+        int i = 0;
+
+        // local part: [_A-Za-z0-9-]+(\.[_A-Za-z0-9-]+)*
+        int labelLength = 0;
+        for (; i < len; i++) {
+            char c = cs.charAt(i);
+            if (c == '@')
+                break;
+
+            if (c == '.') {
+                if (labelLength == 0)
+                    return false;
+                labelLength = 0;
+            } else if (contains(EMAIL_LOCAL_CHARS, c)) {
+                labelLength++;
+            } else {
+                return false;
+            }
+        }
+
+        if (i == len || labelLength == 0)
+            return false;
+
+        // domain part: [A-Za-z0-9-]+(\.[A-Za-z0-9-]+)*\.[A-Za-z]{2,}
+        int labels = 0;
+        boolean alphaLabel = true;
+        labelLength = 0;
+        for (i++; i < len; i++) {
+            char c = cs.charAt(i);
+            if (c == '.') {
+                if (labelLength == 0)
+                    return false;
+                labels++;
+                labelLength = 0;
+                alphaLabel = true;
+            } else if (contains(EMAIL_DOMAIN_CHARS, c)) {
+                labelLength++;
+                alphaLabel &= isAsciiLetter(c);
+            } else {
+                return false;
+            }
+        }
+
+        return labels > 0 && labelLength >= 2 && alphaLabel;
+    }
+
+    /**
+     * Returns true, if the given char sequence matches {@link PredefinedPatterns#phone()}.
+     *
+     * @param cs is a char sequence to test, not null.
+     * @return true, if the given char sequence is a valid telephone number.
+     */
+    static boolean isPhone(CharSequence cs) {
+        int len = cs.length();
+        if (len == 0)
+            return false;
+
+        for (int i = 0; i < len; i++) {
+            if (!contains(PHONE_CHARS, cs.charAt(i)))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean contains(long[] set, char c) {
+        return c < 128 && (set[c >>> 6] & (1L << c)) != 0;
+    }
+
+    private static long[] asciiSet(String chars) {
+        long[] set = new long[2];
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            set[c >>> 6] |= 1L << c;
+        }
+        return set;
+    }
+}
@@ -18,6 +18,7 @@ package net.javaforge.validator4j;
 
 import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
 
 /**
  * This class contains methods copied from org.apache.commons.lang.DateUtils class.
@@ -58,6 +59,23 @@ public final class DateUtils {
         return isSameDay(cal1, cal2);
     }
 
+    /**
+     * Returns number of days since 1970-01-01 of the local day of the given date in the given time
+     * zone.
+     *
+     * @param date     the date, not null
+     * @param timeZone the time zone, not null
+     * @return epoch day of the date
+     * @throws IllegalArgumentException if the date is <code>null</code>
+     */
+    static long epochDay(Date date, TimeZone timeZone) {
+        if (date == null)
+            throw new IllegalArgumentException("The date must not be null");
+
+        long millis = date.getTime();
+        return Math.floorDiv(millis + timeZone.getOffset(millis), 24L * 60 * 60 * 1000);
+    }
+
     /**
      * <p>Checks if two calendar objects are on the same day ignoring time.</p>
      * <p/>
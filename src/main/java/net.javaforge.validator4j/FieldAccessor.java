@@ -0,0 +1,236 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolved read accessor of a single object field. Accessors are cached per (runtime class, field
+ * name) pair, so the class hierarchy is searched only once per pair and all following reads are
+ * a single method handle invocation. Fields of type <tt>int</tt>, <tt>long</tt> and
+ * <tt>double</tt> can also be read without boxing (see {@link #getKind()}).
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+final class FieldAccessor {
+
+    /**
+     * Kind of a field that can only be read as (boxed) object.
+     */
+    static final int OBJECT = 0;
+
+    /**
+     * Kind of an <tt>int</tt> field.
+     */
+    static final int INT = 1;
+
+    /**
+     * Kind of a <tt>long</tt> field.
+     */
+    static final int LONG = 2;
+
+    /**
+     * Kind of a <tt>double</tt> field.
+     */
+    static final int DOUBLE = 3;
+
+    private static final MethodType GETTER_TYPE =
+            MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String, FieldAccessor>> accessors =
+            new ClassValue<ConcurrentMap<String, FieldAccessor>>() {
+                @Override
+                protected ConcurrentMap<String, FieldAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<String, FieldAccessor>();
+                }
+            };
+
+    private final Field field;
+
+    private final MethodHandle getter;
+
+    private final int kind;
+
+    /**
+     * Getter returning the unboxed value, if the field is of a primitive kind. Otherwise null.
+     */
+    private final MethodHandle primitiveGetter;
+
+    private FieldAccessor(Field field, MethodHandle getter, int kind,
+                          MethodHandle primitiveGetter) {
+        this.field = field;
+        this.getter = getter;
+        this.kind = kind;
+        this.primitiveGetter = primitiveGetter;
+    }
+
+    /**
+     * Returns (cached) accessor of the field <tt>fieldName</tt> declared by the given class or one
+     * of its superclasses.
+     *
+     * @param clazz     is a class to resolve the field in.
+     * @param fieldName is a name of the field.
+     * @return accessor of the field.
+     * @throws NoSuchFieldException if neither the class nor its superclasses declare the field.
+     */
+    static FieldAccessor of(Class<?> clazz, CharSequence fieldName) throws NoSuchFieldException {
+        String name = String.valueOf(fieldName);
+        ConcurrentMap<String, FieldAccessor> classAccessors = accessors.get(clazz);
+        FieldAccessor accessor = classAccessors.get(name);
+        if (accessor == null) {
+            accessor = resolve(clazz, name);
+            FieldAccessor existing = classAccessors.putIfAbsent(name, accessor);
+            if (existing != null)
+                accessor = existing;
+        }
+        return accessor;
+    }
+
+    /**
+     * Returns the resolved field.
+     *
+     * @return the resolved field.
+     */
+    Field getField() {
+        return this.field;
+    }
+
+    /**
+     * Returns kind of the field: {@link #INT}, {@link #LONG}, {@link #DOUBLE} or {@link #OBJECT}
+     * for all other types.
+     *
+     * @return kind of the field.
+     */
+    int getKind() {
+        return this.kind;
+    }
+
+    /**
+     * Reads the value of an {@link #INT} field of the given object.
+     *
+     * @param obj is an object to read the field from.
+     * @return the field value.
+     */
+    int getInt(Object obj) {
+        try {
+            return (int) this.primitiveGetter.invokeExact(obj);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Reads the value of a {@link #LONG} field of the given object.
+     *
+     * @param obj is an object to read the field from.
+     * @return the field value.
+     */
+    long getLong(Object obj) {
+        try {
+            return (long) this.primitiveGetter.invokeExact(obj);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Reads the value of a {@link #DOUBLE} field of the given object.
+     *
+     * @param obj is an object to read the field from.
+     * @return the field value.
+     */
+    double getDouble(Object obj) {
+        try {
+            return (double) this.primitiveGetter.invokeExact(obj);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Reads the field value of the given object.
+     *
+     * @param obj is an object to read the field from.
+     * @return the field value (primitives are boxed).
+     */
+    Object get(Object obj) {
+        try {
+            return (Object) this.getter.invokeExact(obj);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        if (t instanceof Error)
+            throw (Error) t;
+        throw new RuntimeException(t);
+    }
+
+    private static FieldAccessor resolve(Class<?> clazz, String fieldName)
+            throws NoSuchFieldException {
+
+        Field f = findFieldRecursively(clazz, fieldName);
+        f.setAccessible(true);
+        try {
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(f);
+            if (Modifier.isStatic(f.getModifiers()))
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+
+            int kind = kindOf(f.getType());
+            MethodHandle primitiveGetter = kind != OBJECT
+                    ? getter.asType(MethodType.methodType(f.getType(), Object.class)) : null;
+
+            return new FieldAccessor(f, getter.asType(GETTER_TYPE), kind, primitiveGetter);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Error creating accessor for field '" + fieldName
+                    + "' of type '" + clazz + "'.", e);
+        }
+    }
+
+    private static int kindOf(Class<?> type) {
+        if (type == int.class)
+            return INT;
+        if (type == long.class)
+            return LONG;
+        if (type == double.class)
+            return DOUBLE;
+        return OBJECT;
+    }
+
+    private static Field findFieldRecursively(Class<?> clazz, String fieldName)
+            throws NoSuchFieldException {
+
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                if (f.getName().equals(fieldName))
+                    return f;
+            }
+        }
+
+        throw new NoSuchFieldException(fieldName);
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Compiled field path expression like <tt>address.city</tt> or <tt>items[*].price</tt>. A path
+ * is a dot separated list of field names, each optionally followed by one or more <tt>[*]</tt>
+ * selecting all elements of a {@link Iterable}, an array or the values of a {@link Map}.
+ * <br><br>
+ * The path is parsed once, the fields are read by cached {@link FieldAccessor}s. The object graph
+ * is traversed iteratively (see {@link Traversal}), so the stack depth doesn't depend on the size
+ * of the graph.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+final class FieldPath {
+
+    private static final String ALL_ELEMENTS = "[*]";
+
+    private final String path;
+
+    private final String[] names;
+
+    /**
+     * Number of <tt>[*]</tt> following each field name.
+     */
+    private final int[] iterations;
+
+    private FieldPath(String path, String[] names, int[] iterations) {
+        this.path = path;
+        this.names = names;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Returns true, if the given field name is a path expression and not a simple field name.
+     *
+     * @param fieldName is a field name to test.
+     * @return true, if the field name is a path expression.
+     */
+    static boolean isPath(CharSequence fieldName) {
+        for (int i = 0; i < fieldName.length(); i++) {
+            char c = fieldName.charAt(i);
+            if (c == '.' || c == '[')
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Compiles the given path expression.
+     *
+     * @param path is a path expression.
+     * @return compiled path.
+     * @throws IllegalArgumentException if the path is not a valid path expression.
+     */
+    static FieldPath compile(CharSequence path) {
+        String s = path.toString();
+        List<String> names = new ArrayList<String>();
+        List<Integer> iterations = new ArrayList<Integer>();
+
+        for (String segment : s.split("\\.", -1)) {
+            int end = segment.indexOf('[');
+            String name = end < 0 ? segment : segment.substring(0, end);
+            if (!isIdentifier(name))
+                throw new IllegalArgumentException("Invalid field path '" + s + "'.");
+
+            int count = 0;
+            for (int i = name.length(); i < segment.length(); i += ALL_ELEMENTS.length(), count++) {
+                if (!segment.startsWith(ALL_ELEMENTS, i))
+                    throw new IllegalArgumentException("Invalid field path '" + s + "'.");
+            }
+
+            names.add(name);
+            iterations.add(count);
+        }
+
+        int[] counts = new int[iterations.size()];
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = iterations.get(i);
+
+        return new FieldPath(s, names.toArray(new String[names.size()]), counts);
+    }
+
+    /**
+     * Returns true, if this path selects the elements of a collection, an array or a map (contains
+     * <tt>[*]</tt>). Otherwise the path of the single selected value is this path expression.
+     *
+     * @return true, if this path selects elements.
+     */
+    boolean selectsElements() {
+        for (int count : this.iterations) {
+            if (count > 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns traversal of the values selected by this path starting at the given object. If a
+     * field on the path is null, the selected value is null; if a collection to iterate is null,
+     * no value is selected.
+     *
+     * @param root is an object to start at.
+     * @return traversal of the selected values.
+     */
+    Traversal traverse(Object root) {
+        return new Traversal(root);
+    }
+
+    @Override
+    public String toString() {
+        return this.path;
+    }
+
+    private static boolean isIdentifier(String name) {
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0)))
+            return false;
+
+        for (int i = 1; i < name.length(); i++) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i)))
+                return false;
+        }
+        return true;
+    }
+
+    private static Object read(Object obj, String fieldName) {
+        try {
+            return FieldAccessor.of(obj.getClass(), fieldName).get(obj);
+        } catch (NoSuchFieldException e) {
+            throw new RuntimeException("Error resolving field '" + fieldName
+                    + "' within validation object of type '" + obj.getClass() + "'.", e);
+        }
+    }
+
+    /**
+     * Iterative traversal of the values selected by a path. Elements of collections are
+     * iterated lazily, the path of a selected value (e.g. <tt>items[3].price</tt>) is only built
+     * on demand.
+     */
+    final class Traversal {
+
+        private final Deque<Frame> stack = new ArrayDeque<Frame>();
+
+        private Frame current;
+
+        private Traversal(Object root) {
+            this.stack.push(new Frame(null, null, null, root, 0, 0));
+        }
+
+        /**
+         * Moves to the next selected value.
+         *
+         * @return true, if there is a next value.
+         */
+        boolean next() {
+            while (!this.stack.isEmpty()) {
+                Frame frame = this.stack.peek();
+
+                if (frame.elements != null) {
+                    if (!frame.elements.hasNext()) {
+                        this.stack.pop();
+                        continue;
+                    }
+
+                    Object element = frame.elements.next();
+                    Object key = frame.index++;
+                    if (frame.value instanceof Map) {
+                        key = ((Map.Entry<?, ?>) element).getKey();
+                        element = ((Map.Entry<?, ?>) element).getValue();
+                    }
+                    this.stack.push(new Frame(frame, null, key, element, frame.step,
+                            frame.pending - 1));
+                    continue;
+                }
+
+                if (frame.pending > 0) {
+                    if (frame.value == null)
+                        this.stack.pop();
+                    else
+                        frame.elements = elements(frame.value);
+                    continue;
+                }
+
+                this.stack.pop();
+                if (frame.step == names.length) {
+                    this.current = frame;
+                    return true;
+                }
+
+                String name = names[frame.step];
+                Object value = frame.value != null ? read(frame.value, name) : null;
+                this.stack.push(new Frame(frame, name, null, value, frame.step + 1,
+                        iterations[frame.step]));
+            }
+            this.current = null;
+            return false;
+        }
+
+        /**
+         * Returns the current value.
+         *
+         * @return the current value.
+         */
+        Object value() {
+            if (this.current == null)
+                throw new NoSuchElementException();
+
+            return this.current.value;
+        }
+
+        /**
+         * Returns path of the current value, e.g. <tt>items[3].price</tt>.
+         *
+         * @return path of the current value.
+         */
+        String path() {
+            if (this.current == null)
+                throw new NoSuchElementException();
+
+            List<Frame> frames = new ArrayList<Frame>();
+            for (Frame frame = this.current; frame.parent != null; frame = frame.parent)
+                frames.add(frame);
+
+            StringBuilder sb = new StringBuilder();
+            for (int i = frames.size() - 1; i >= 0; i--) {
+                Frame frame = frames.get(i);
+                if (frame.name != null)
+                    sb.append(sb.length() > 0 ? "." : "").append(frame.name);
+                else
+                    sb.append('[').append(frame.key).append(']');
+            }
+            return sb.toString();
+        }
+
+        private Iterator<?> elements(final Object value) {
+            if (value instanceof Map)
+                return ((Map<?, ?>) value).entrySet().iterator();
+
+            if (value instanceof Iterable)
+                return ((Iterable<?>) value).iterator();
+
+            if (value instanceof Object[])
+                return Arrays.asList((Object[]) value).iterator();
+
+            if (value.getClass().isArray()) {
+                return new Iterator<Object>() {
+                    private int i;
+
+                    public boolean hasNext() {
+                        return this.i < Array.getLength(value);
+                    }
+
+                    public Object next() {
+                        if (!this.hasNext())
+                            throw new NoSuchElementException();
+
+                        return Array.get(value, this.i++);
+                    }
+
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            throw new RuntimeException("Field path '" + path + "' expects a collection, array"
+                    + " or map at '" + this.pathOf(value) + "', but found value of type '"
+                    + value.getClass() + "'.");
+        }
+
+        private String pathOf(Object value) {
+            Frame current = this.current;
+            this.current = this.stack.peek();
+            try {
+                return this.path();
+            } finally {
+                this.current = current;
+            }
+        }
+    }
+
+    /**
+     * Step of a traversal: a field value (<tt>name</tt> is set) or a collection element
+     * (<tt>key</tt> is set).
+     */
+    private static final class Frame {
+
+        final Frame parent;
+
+        final String name;
+
+        final Object key;
+
+        final Object value;
+
+        /**
+         * Index of the next field name to read.
+         */
+        final int step;
+
+        /**
+         * Number of <tt>[*]</tt> still to apply to the value.
+         */
+        final int pending;
+
+        Iterator<?> elements;
+
+        int index;
+
+        Frame(Frame parent, String name, Object key, Object value, int step, int pending) {
+            this.parent = parent;
+            this.name = name;
+            this.key = key;
+            this.value = value;
+            this.step = step;
+            this.pending = pending;
+        }
+    }
+}
@@ -16,11 +16,19 @@
 
 package net.javaforge.validator4j;
 
-import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
  * Validator used to test object hierarchies.
+ * <br><br>
+ * Field validators can be associated with simple field names as well as with field paths like
+ * <tt>address.city</tt> or <tt>items[*].price</tt>, where <tt>[*]</tt> selects all elements of a
+ * collection, an array or the values of a map. Messages of the single elements are prefixed with
+ * their path, e.g. <tt>items[3].price</tt>.
  *
  * @author Maxim Kalina
  * @version $Id$
@@ -29,7 +37,15 @@ public class HierarchicalValidator<T> implements IValidator<T> {
 
     private IValidator<T> preValidator;
 
-    private Map<CharSequence, Collection<IValidator<?>>> fieldValidators;
+    private Map<CharSequence, IValidator<?>[]> fieldValidators;
+
+    private Map<CharSequence, FieldPath> fieldPathExpressions;
+
+    /**
+     * Message prefixes of the fields (see {@link #fieldPrefix}), updated on configuration
+     * changes, so the validation doesn't build them.
+     */
+    private Map<CharSequence, CharSequence> fieldPrefixes;
 
     private IValidator<T> postValidator;
 
@@ -43,6 +59,25 @@ public class HierarchicalValidator<T> implements IValidator<T> {
 
     private CharSequence prefix;
 
+    private Executor fieldExecutor;
+
+    private IValidationListener listener;
+
+    private boolean detectCycles = false;
+
+    /**
+     * Objects validated by the hierarchical validators with cycle detection enabled in the
+     * current thread. Field tasks of {@link #parallelFields} start with a copy of the objects of
+     * the thread starting them.
+     */
+    private static final ThreadLocal<Map<Object, Object>> validating =
+            new ThreadLocal<Map<Object, Object>>() {
+                @Override
+                protected Map<Object, Object> initialValue() {
+                    return new IdentityHashMap<Object, Object>();
+                }
+            };
+
     /**
      * Configures prefix added in front of every validation message.
      *
@@ -51,6 +86,21 @@ public class HierarchicalValidator<T> implements IValidator<T> {
      */
     public HierarchicalValidator<T> withPrefix(CharSequence prefix) {
         this.prefix = prefix;
+        this.updateFieldPrefixes();
+        return this;
+    }
+
+    /**
+     * Installs listener notified about every validated field of this validator. The field path
+     * passed to the listener is the field name prefixed by the prefix of this validator (if any).
+     * The listener is not propagated to the field validators, install it on them separately to
+     * observe their checks.
+     *
+     * @param listener is a listener to notify or null, if no listener should be notified.
+     * @return this validator.
+     */
+    public HierarchicalValidator<T> withListener(IValidationListener listener) {
+        this.listener = listener;
         return this;
     }
 
@@ -74,6 +124,40 @@ public class HierarchicalValidator<T> implements IValidator<T> {
         return this;
     }
 
+    /**
+     * Enables parallel field validation: the validator chains of the single fields run
+     * concurrently on the given executor. The field results are merged in the order the field
+     * validators were added, so the validation result is the same as in sequential mode. If
+     * {@link #stopOnFirstInvalidField()} is set, the validation of the fields following the first
+     * invalid one is cancelled.
+     * <br><br>
+     * All field validators must be safe to run concurrently. Pre- and post-validators still run in
+     * the calling thread. While waiting for the field results, the calling thread runs the field
+     * tasks not yet started by the executor itself, so nested hierarchical validators may share a
+     * bounded executor regardless of the nesting depth.
+     *
+     * @param executor is an executor to run field validators on.
+     * @return this validator.
+     */
+    public HierarchicalValidator<T> parallelFields(Executor executor) {
+        this.fieldExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Enables identity based cycle detection: if an object is reached again (e.g. through a
+     * nested validator of a cyclic object graph) while it's still being validated by a validator
+     * with cycle detection enabled, it's considered valid instead of being validated again. The
+     * messages of the object are reported by the outer validation. Cycles are detected across the
+     * field tasks of {@link #parallelFields} as well.
+     *
+     * @return this validator.
+     */
+    public HierarchicalValidator<T> detectCycles() {
+        this.detectCycles = true;
+        return this;
+    }
+
     /**
      * Indicates that post validator (if exists) should run even if previous validation steps
      * (pre-validator, field validator) fail.
@@ -93,6 +177,7 @@ public class HierarchicalValidator<T> implements IValidator<T> {
      */
     public HierarchicalValidator<T> withoutFieldPrefix() {
         this.appendFieldPrefix = false;
+        this.updateFieldPrefixes();
         return this;
     }
 
@@ -227,25 +312,38 @@ public class HierarchicalValidator<T> implements IValidator<T> {
     }
 
     /**
-     * Adds arrays of validators associated with the object field by given <tt>fieldName</tt>
+     * Adds arrays of validators associated with the object field by given <tt>fieldName</tt>. The
+     * field name may be a field path like <tt>address.city</tt> or <tt>items[*].price</tt>, the
+     * validators run on every selected value.
      *
-     * @param fieldName  is a name of the object's field
+     * @param fieldName  is a name of the object's field or a field path
      * @param validators is an array of validators to run
      * @return this validator.
+     * @throws IllegalArgumentException if the field name is not a valid field path.
      */
     public HierarchicalValidator<T> addFieldValidator(CharSequence fieldName,
                                                       IValidator<?>... validators) {
         if (this.fieldValidators == null)
-            this.fieldValidators = new LinkedHashMap<CharSequence, Collection<IValidator<?>>>();
+            this.fieldValidators = new LinkedHashMap<CharSequence, IValidator<?>[]>();
 
-        Collection<IValidator<?>> fieldValidators;
-        if (this.fieldValidators.containsKey(fieldName)) {
-            fieldValidators = this.fieldValidators.get(fieldName);
+        if (FieldPath.isPath(fieldName)) {
+            if (this.fieldPathExpressions == null)
+                this.fieldPathExpressions = new HashMap<CharSequence, FieldPath>();
+
+            if (!this.fieldPathExpressions.containsKey(fieldName))
+                this.fieldPathExpressions.put(fieldName, FieldPath.compile(fieldName));
+        }
+
+        IValidator<?>[] fieldValidators = this.fieldValidators.get(fieldName);
+        if (fieldValidators == null) {
+            fieldValidators = validators.clone();
         } else {
-            fieldValidators = new ArrayList<IValidator<?>>();
+            fieldValidators = Arrays.copyOf(fieldValidators, fieldValidators.length + validators.length);
+            System.arraycopy(validators, 0, fieldValidators,
+                    fieldValidators.length - validators.length, validators.length);
         }
-        fieldValidators.addAll(Arrays.asList(validators));
         this.fieldValidators.put(fieldName, fieldValidators);
+        this.updateFieldPrefixes();
         return this;
     }
 
@@ -264,58 +362,448 @@ public class HierarchicalValidator<T> implements IValidator<T> {
         return this.addFieldValidator(fieldName, new Validator(msg, checks));
     }
 
+    /**
+     * Compiles this validator for objects of the given type. The fields of the type are resolved
+     * once, the field validators are copied into arrays, field {@link Validator}s are built (see
+     * {@link Validator#build()}) and nested hierarchical validators are compiled for the declared
+     * types of their fields, so the compiled validator doesn't do any map iteration or field
+     * lookup on the hot path. Objects of a subtype of <tt>type</tt> are still validated, their
+     * fields are resolved dynamically.
+     * <br><br>
+     * The compiled validator is an immutable snapshot of this validator: later configuration
+     * changes are not reflected. It produces the same validation results as {@link #validate};
+     * field validators run in the calling thread even if {@link #parallelFields} is configured.
+     *
+     * @param type is a type of the objects to validate.
+     * @return compiled validator.
+     * @throws IllegalArgumentException if the type doesn't declare one of the validated fields.
+     */
+    public IValidator<T> compile(Class<T> type) {
+        if (type == null)
+            throw new IllegalArgumentException("Parameter 'type' cannot be null!");
+
+        return new Compiled<T>(this, type, true,
+                new IdentityHashMap<HierarchicalValidator<?>, Map<Class<?>, Compiled<?>>>());
+    }
+
+    /**
+     * Freezes the current configuration of this validator into an immutable validator. The
+     * returned validator has only final fields, its field validators are stored in arrays and
+     * field {@link Validator}s and nested hierarchical validators are built as well, so it can be
+     * shared by any number of threads, even if it is published without synchronization. Unlike
+     * {@link #compile(Class)}, the fields are resolved per runtime class of the validated object.
+     * <br><br>
+     * Later configuration changes of this validator are not reflected. Field validators run in
+     * the calling thread even if {@link #parallelFields} is configured. If this validator is a
+     * subclass overriding {@link #preValidate} or {@link #postValidate}, these hooks are still
+     * called on this instance.
+     *
+     * @return immutable snapshot of this validator.
+     */
+    public IValidator<T> build() {
+        return new Compiled<T>(this, null, false,
+                new IdentityHashMap<HierarchicalValidator<?>, Map<Class<?>, Compiled<?>>>());
+    }
+
     /**
      * {@inheritDoc}
+     * <br><br>
+     * If the object passes all validation steps, the shared
+     * {@link ValidationResult#unmodifiableEmpty()} result is returned, so the validation of a
+     * valid object doesn't allocate a new result. Otherwise a modifiable result is returned, as
+     * by {@link Validator#validate}: the messages of all validation steps, including nested
+     * hierarchical validators, are collected by a single {@link ValidationResult.Builder}, so
+     * every message is prefixed and copied only once regardless of the nesting depth.
      *
      * @see IValidator#validate(java.lang.Object)
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public final ValidationResult validate(T obj) {
+        ValidationResult.Builder out = this.validate(obj, null, null);
+        return out != null ? out.buildModifiable() : ValidationResult.unmodifiableEmpty();
+    }
 
-        ValidationResult result = new ValidationResult();
-        if (this.prefix != null)
-            result.addWithPrefix(this.prefix, preValidate(obj));
-        else
-            result.add(preValidate(obj));
+    /**
+     * Validates the given object, appending the messages prefixed with <tt>outerPrefix</tt>
+     * (if not null) to <tt>out</tt>. The builder is created on demand.
+     *
+     * @return the builder containing the messages or null, if the object is valid and no builder
+     *         was passed.
+     */
+    ValidationResult.Builder validate(T obj, CharSequence outerPrefix,
+                                      ValidationResult.Builder out) {
+        if (!this.detectCycles || obj == null)
+            return this.validateObject(obj, outerPrefix, out);
+
+        Map<Object, Object> validating = HierarchicalValidator.validating.get();
+        if (validating.put(obj, obj) != null)
+            return out;
+
+        try {
+            return this.validateObject(obj, outerPrefix, out);
+        } finally {
+            validating.remove(obj);
+        }
+    }
+
+    private ValidationResult.Builder validateObject(T obj, CharSequence outerPrefix,
+                                                    ValidationResult.Builder out) {
+        int appended = appended(out);
+        out = addResult(out, outerPrefix, this.prefix, preValidate(obj));
+
+        if (appended(out) != appended && !this.processFieldsIfPreValidatorFails)
+            return out;
+
+        if (this.fieldValidators != null) {
+            if (this.fieldExecutor != null)
+                out = this.validateFieldsInParallel(obj, outerPrefix, out, appended);
+            else
+                out = this.validateFields(obj, outerPrefix, out, appended);
+        }
 
-        if (result.isNotEmpty() && !this.processFieldsIfPreValidatorFails)
-            return result;
+        if (appended(out) == appended || this.postValidateIfFieldValidatorFails)
+            out = addResult(out, outerPrefix, this.prefix, postValidate(obj));
 
-        for (Map.Entry<CharSequence, Collection<IValidator<?>>> entry : fieldValidators.entrySet()) {
-            Object fieldValue = this.resolveFieldValue(obj, entry.getKey());
-            Collection<IValidator<?>> fieldValidators = entry.getValue();
-            for (IValidator<?> fieldValidator : fieldValidators) {
-                ValidationResult fieldValidationResult =
-                        ((IValidator) fieldValidator).validate(fieldValue);
+        return out;
+    }
+
+    private ValidationResult.Builder validateFields(T obj, CharSequence outerPrefix,
+                                                    ValidationResult.Builder out, int appended) {
+        for (Map.Entry<CharSequence, IValidator<?>[]> entry : fieldValidators.entrySet()) {
+            out = this.observeField(obj, entry.getKey(), entry.getValue(), outerPrefix, out);
 
-                StringBuffer msgPrefix = new StringBuffer();
-                if (this.prefix != null)
-                    msgPrefix.append(this.prefix);
+            if (stopOnFirstInvalidField && appended(out) != appended)
+                break;
+        }
+        return out;
+    }
 
-                if (this.appendFieldPrefix)
-                    msgPrefix.append(this.prefix != null ? "." : "").append(entry.getKey());
+    private ValidationResult.Builder validateFieldsInParallel(final T obj,
+                                                              final CharSequence outerPrefix,
+                                                              ValidationResult.Builder out,
+                                                              int appended) {
+        // the field tasks continue the path of the objects validated by this thread, each one on
+        // its own copy, so cycles are detected on the executor threads as well
+        final Map<Object, Object> ancestors =
+                new IdentityHashMap<Object, Object>(HierarchicalValidator.validating.get());
+        List<FutureTask<ValidationResult.Builder>> tasks =
+                new ArrayList<FutureTask<ValidationResult.Builder>>(fieldValidators.size());
+        try {
+            for (final Map.Entry<CharSequence, IValidator<?>[]> entry : fieldValidators.entrySet()) {
+                Callable<ValidationResult.Builder> field = new Callable<ValidationResult.Builder>() {
+                    public ValidationResult.Builder call() {
+                        Map<Object, Object> previous = HierarchicalValidator.validating.get();
+                        HierarchicalValidator.validating.set(
+                                new IdentityHashMap<Object, Object>(ancestors));
+                        try {
+                            return observeField(obj, entry.getKey(), entry.getValue(),
+                                    outerPrefix, null);
+                        } finally {
+                            HierarchicalValidator.validating.set(previous);
+                        }
+                    }
+                };
+                FutureTask<ValidationResult.Builder> task =
+                        new FutureTask<ValidationResult.Builder>(field);
+                tasks.add(task);
+                this.fieldExecutor.execute(task);
+            }
 
-                if (msgPrefix.length() > 0)
-                    result.addWithPrefix(msgPrefix, fieldValidationResult);
-                else
-                    result.add(fieldValidationResult);
+            for (FutureTask<ValidationResult.Builder> task : tasks) {
+                // runs the task in this thread, unless an executor thread has already started it,
+                // so waiting for tasks still queued behind blocked executor threads can't deadlock
+                task.run();
+                ValidationResult.Builder fieldOut = task.get();
+                if (fieldOut != null) {
+                    if (out == null)
+                        out = ValidationResult.builder();
+                    out.add(fieldOut.build());
+                }
 
-                if (fieldValidationResult.isNotEmpty())
+                if (stopOnFirstInvalidField && appended(out) != appended)
                     break;
             }
+            return out;
 
-            if (stopOnFirstInvalidField && result.isNotEmpty())
-                break;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while validating fields.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new RuntimeException(cause);
+        } finally {
+            for (FutureTask<ValidationResult.Builder> task : tasks)
+                task.cancel(true);
         }
+    }
 
-        if (result.isEmpty() || (result.isNotEmpty() && this.postValidateIfFieldValidatorFails)) {
-            if (this.prefix != null)
-                result.addWithPrefix(this.prefix, postValidate(obj));
-            else
-                result.add(postValidate(obj));
+    /**
+     * Runs validator chain of the given field, notifying the listener (if any).
+     */
+    private ValidationResult.Builder observeField(T obj, CharSequence fieldName,
+                                                  IValidator<?>[] validators,
+                                                  CharSequence outerPrefix,
+                                                  ValidationResult.Builder out) {
+        IValidationListener listener = this.listener;
+        if (listener == null)
+            return this.runFieldValidators(obj, fieldName, validators, outerPrefix, out);
+
+        long start = System.nanoTime();
+        int appended = appended(out);
+        out = this.runFieldValidators(obj, fieldName, validators, outerPrefix, out);
+        listener.fieldCompleted(this.fieldPath(fieldName), appended(out) == appended,
+                System.nanoTime() - start);
+        return out;
+    }
+
+    private ValidationResult.Builder runFieldValidators(T obj, CharSequence fieldName,
+                                                        IValidator<?>[] validators,
+                                                        CharSequence outerPrefix,
+                                                        ValidationResult.Builder out) {
+        FieldPath path = this.fieldPathExpression(fieldName);
+        if (path != null)
+            return validatePath(obj, path, validators, outerPrefix, this.prefix,
+                    this.appendFieldPrefix, out);
+
+        return validateField(obj, fieldName, validators, outerPrefix,
+                this.fieldPrefixes.get(fieldName), out);
+    }
+
+    /**
+     * Runs validator chain on every value selected by the given path. The messages are prefixed
+     * with the path of the value (e.g. <tt>items[3].price</tt>), if <tt>appendFieldPrefix</tt>
+     * is set. Paths are built for invalid values only, unless the chain contains nested
+     * hierarchical validators.
+     */
+    private static ValidationResult.Builder validatePath(Object obj, FieldPath path,
+                                                         IValidator<?>[] validators,
+                                                         CharSequence outerPrefix,
+                                                         CharSequence prefix,
+                                                         boolean appendFieldPrefix,
+                                                         ValidationResult.Builder out) {
+        boolean nested = false;
+        for (IValidator<?> validator : validators)
+            nested |= validator instanceof HierarchicalValidator || validator instanceof Compiled;
+
+        FieldPath.Traversal traversal = path.traverse(obj);
+        while (traversal.next()) {
+            if (nested) {
+                out = validateValue(traversal.value(), validators, outerPrefix, appendFieldPrefix
+                        ? elementPrefix(prefix, path, traversal) : prefix, out);
+                continue;
+            }
+
+            ValidationResult valueResult = firstFailure(traversal.value(), validators);
+            if (valueResult != null)
+                out = addResult(out, outerPrefix, appendFieldPrefix
+                        ? elementPrefix(prefix, path, traversal) : prefix, valueResult);
+        }
+        return out;
+    }
+
+    /**
+     * Returns prefix of the current value of the traversal. Paths of single elements (e.g.
+     * <tt>items[3].price</tt>) are not interned (see
+     * {@link PrefixedValidationMessage#uninterned(String)}), only the static prefix is.
+     */
+    private static CharSequence elementPrefix(CharSequence prefix, FieldPath path,
+                                              FieldPath.Traversal traversal) {
+        if (!path.selectsElements())
+            return PrefixedValidationMessage.join(prefix, path.toString());
+
+        return PrefixedValidationMessage.join(prefix,
+                PrefixedValidationMessage.uninterned(traversal.path()));
+    }
+
+    /**
+     * Runs validator chain of the given field and appends messages of the first failed
+     * validator.
+     */
+    private static ValidationResult.Builder validateField(Object obj, CharSequence fieldName,
+                                                          IValidator<?>[] validators,
+                                                          CharSequence outerPrefix,
+                                                          CharSequence prefix,
+                                                          ValidationResult.Builder out) {
+        return validateField(obj, obj != null ? resolveAccessor(obj, fieldName) : null,
+                validators, outerPrefix, prefix, out);
+    }
+
+    /**
+     * Runs validator chain of the field read by the given accessor. Values of <tt>int</tt>,
+     * <tt>long</tt> and <tt>double</tt> fields are passed to {@link Validator}s unboxed.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValidationResult.Builder validateField(Object obj, FieldAccessor accessor,
+                                                          IValidator<?>[] validators,
+                                                          CharSequence outerPrefix,
+                                                          CharSequence prefix,
+                                                          ValidationResult.Builder out) {
+        switch (obj != null ? accessor.getKind() : FieldAccessor.OBJECT) {
+            case FieldAccessor.INT: {
+                int value = accessor.getInt(obj);
+                for (IValidator validator : validators) {
+                    ValidationResult fieldValidationResult =
+                            Validator.validateInt(validator, value);
+
+                    if (fieldValidationResult.isNotEmpty())
+                        return addResult(out, outerPrefix, prefix, fieldValidationResult);
+                }
+                return out;
+            }
+            case FieldAccessor.LONG: {
+                long value = accessor.getLong(obj);
+                for (IValidator validator : validators) {
+                    ValidationResult fieldValidationResult =
+                            Validator.validateLong(validator, value);
+
+                    if (fieldValidationResult.isNotEmpty())
+                        return addResult(out, outerPrefix, prefix, fieldValidationResult);
+                }
+                return out;
+            }
+            case FieldAccessor.DOUBLE: {
+                double value = accessor.getDouble(obj);
+                for (IValidator validator : validators) {
+                    ValidationResult fieldValidationResult =
+                            Validator.validateDouble(validator, value);
+
+                    if (fieldValidationResult.isNotEmpty())
+                        return addResult(out, outerPrefix, prefix, fieldValidationResult);
+                }
+                return out;
+            }
+            default:
+                return validateValue(obj != null ? accessor.get(obj) : null, validators,
+                        outerPrefix, prefix, out);
         }
+    }
+
+    /**
+     * Runs validator chain on the given value and appends messages of the first failed
+     * validator. Nested hierarchical validators append their messages directly.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValidationResult.Builder validateValue(Object value,
+                                                          IValidator<?>[] validators,
+                                                          CharSequence outerPrefix,
+                                                          CharSequence prefix,
+                                                          ValidationResult.Builder out) {
+        for (IValidator validator : validators) {
+            if (validator instanceof HierarchicalValidator || validator instanceof Compiled) {
+                int appended = appended(out);
+                CharSequence nestedPrefix = PrefixedValidationMessage.join(outerPrefix, prefix);
+                out = validator instanceof HierarchicalValidator
+                        ? ((HierarchicalValidator) validator).validate(value, nestedPrefix, out)
+                        : ((Compiled) validator).validate(value, nestedPrefix, out);
+
+                if (appended(out) != appended)
+                    return out;
+
+                continue;
+            }
+
+            ValidationResult fieldValidationResult = validator.validate(value);
+            if (fieldValidationResult.isNotEmpty())
+                return addResult(out, outerPrefix, prefix, fieldValidationResult);
+        }
+        return out;
+    }
+
+    /**
+     * Runs validator chain on the given value and returns result of the first failed validator or
+     * null, if all validators succeed.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ValidationResult firstFailure(Object value, IValidator<?>[] validators) {
+        for (IValidator validator : validators) {
+            ValidationResult fieldValidationResult = validator.validate(value);
+
+            if (fieldValidationResult.isNotEmpty())
+                return fieldValidationResult;
+        }
+        return null;
+    }
+
+    /**
+     * Adds the (not empty) partial result <tt>toAdd</tt> prefixed with
+     * <tt>outerPrefix.prefix</tt> to the builder <tt>out</tt>, creating the latter on demand.
+     */
+    private static ValidationResult.Builder addResult(ValidationResult.Builder out,
+                                                      CharSequence outerPrefix,
+                                                      CharSequence prefix,
+                                                      ValidationResult toAdd) {
+        if (toAdd == null || toAdd.isEmpty())
+            return out;
+
+        if (out == null)
+            out = ValidationResult.builder();
+
+        CharSequence p = PrefixedValidationMessage.join(outerPrefix, prefix);
+        if (p != null)
+            out.addWithPrefix(p, toAdd);
+        else
+            out.add(toAdd);
+
+        return out;
+    }
+
+    /**
+     * Returns number of messages passed to the given builder so far.
+     */
+    private static int appended(ValidationResult.Builder out) {
+        return out != null ? out.appended() : 0;
+    }
+
+    private void updateFieldPrefixes() {
+        if (this.fieldValidators == null)
+            return;
+
+        Map<CharSequence, CharSequence> fieldPrefixes = new HashMap<CharSequence, CharSequence>();
+        for (CharSequence fieldName : this.fieldValidators.keySet())
+            fieldPrefixes.put(fieldName, this.fieldPrefix(fieldName));
+
+        this.fieldPrefixes = fieldPrefixes;
+    }
+
+    /**
+     * Returns the prefix of the messages produced by the validators of the given field or null,
+     * if no prefix should be added.
+     */
+    private CharSequence fieldPrefix(CharSequence fieldName) {
+        StringBuilder msgPrefix = new StringBuilder();
+        if (this.prefix != null)
+            msgPrefix.append(this.prefix);
+
+        if (this.appendFieldPrefix)
+            msgPrefix.append(this.prefix != null ? "." : "").append(fieldName);
+
+        return msgPrefix.length() > 0 ? msgPrefix.toString() : null;
+    }
+
+    /**
+     * Returns the prefix to add to the result of the given field. Results of field paths are
+     * already prefixed with the paths of the single values.
+     */
+    private CharSequence resultPrefix(CharSequence fieldName) {
+        return this.fieldPathExpression(fieldName) != null
+                ? this.prefix : this.fieldPrefix(fieldName);
+    }
+
+    /**
+     * Returns compiled field path, if the given field name is a path expression. Otherwise null.
+     */
+    private FieldPath fieldPathExpression(CharSequence fieldName) {
+        return this.fieldPathExpressions != null ? this.fieldPathExpressions.get(fieldName) : null;
+    }
 
-        return result;
+    /**
+     * Returns the field name prefixed by the prefix of this validator (if any).
+     */
+    private CharSequence fieldPath(CharSequence fieldName) {
+        return this.prefix != null ? this.prefix + "." + fieldName : fieldName.toString();
     }
 
     /**
@@ -346,15 +834,10 @@ public class HierarchicalValidator<T> implements IValidator<T> {
         return null;
     }
 
-    private Object resolveFieldValue(T obj, CharSequence fieldName) {
+    private static FieldAccessor resolveAccessor(Object obj, CharSequence fieldName) {
         try {
 
-            if (obj == null)
-                return null;
-
-            Field f = this.findFieldRecursively(obj.getClass(), String.valueOf(fieldName));
-            f.setAccessible(true);
-            return f.get(obj);
+            return FieldAccessor.of(obj.getClass(), fieldName);
 
         } catch (Exception e) {
             throw new RuntimeException("Error resolving field '" + fieldName
@@ -363,18 +846,308 @@ public class HierarchicalValidator<T> implements IValidator<T> {
 
     }
 
-    private Field findFieldRecursively(Class<?> clazz, String fieldName)
-            throws NoSuchFieldException {
+    /**
+     * Returns true, if the given validator is a (compiled) hierarchical validator with a
+     * time-dependent pre-, post-, field or nested validator (see
+     * {@link Validator#isTimeDependent(IValidator)}). Returns false for any other validator.
+     */
+    static boolean isTimeDependent(IValidator<?> validator, Set<IValidator<?>> visited) {
+        if (validator instanceof HierarchicalValidator) {
+            HierarchicalValidator<?> source = (HierarchicalValidator<?>) validator;
+            if (Validator.isTimeDependent(source.preValidator, visited)
+                    || Validator.isTimeDependent(source.postValidator, visited))
+                return true;
+
+            if (source.fieldValidators != null) {
+                for (IValidator<?>[] validators : source.fieldValidators.values()) {
+                    if (isTimeDependent(validators, visited))
+                        return true;
+                }
+            }
+            return false;
+        }
 
-        if (clazz == null)
-            throw new NoSuchFieldException(fieldName);
+        if (validator instanceof Compiled) {
+            Compiled<?> compiled = (Compiled<?>) validator;
+            if (Validator.isTimeDependent(compiled.preValidator, visited)
+                    || Validator.isTimeDependent(compiled.postValidator, visited))
+                return true;
 
-        try {
-            Field f = clazz.getDeclaredField(String.valueOf(fieldName));
-            return f;
-        } catch (NoSuchFieldException e) {
-            return findFieldRecursively(clazz.getSuperclass(), fieldName);
+            for (IValidator<?>[] validators : compiled.validators) {
+                if (isTimeDependent(validators, visited))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTimeDependent(IValidator<?>[] validators,
+                                           Set<IValidator<?>> visited) {
+        for (IValidator<?> validator : validators) {
+            if (Validator.isTimeDependent(validator, visited))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Compiled form of a hierarchical validator (see {@link #compile(Class)}). Built validators
+     * (see {@link #build()}) have no type, their fields are always resolved dynamically.
+     */
+    private static final class Compiled<T> implements IValidator<T> {
+
+        private final Class<T> type;
+
+        /**
+         * Source validator, if it's a subclass possibly overriding the pre- and post-validation
+         * hooks. Otherwise null.
+         */
+        private final HierarchicalValidator<T> hooks;
+
+        private final IValidator<T> preValidator;
+
+        private final IValidator<T> postValidator;
+
+        private final boolean processFieldsIfPreValidatorFails;
+
+        private final boolean postValidateIfFieldValidatorFails;
+
+        private final boolean stopOnFirstInvalidField;
+
+        private final boolean appendFieldPrefix;
+
+        private final boolean detectCycles;
+
+        private final CharSequence prefix;
+
+        private final IValidationListener listener;
+
+        private final CharSequence[] fieldNames;
+
+        private final FieldPath[] fieldPathExpressions;
+
+        private final CharSequence[] fieldPaths;
+
+        private final CharSequence[] fieldPrefixes;
+
+        private final FieldAccessor[] accessors;
+
+        private final IValidator<?>[][] validators;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Compiled(HierarchicalValidator<T> source, Class<T> type, boolean strict,
+                 Map<HierarchicalValidator<?>, Map<Class<?>, Compiled<?>>> compiled) {
+            this.type = type;
+            this.hooks = source.getClass() != HierarchicalValidator.class ? source : null;
+            this.preValidator = build(source.preValidator);
+            this.postValidator = build(source.postValidator);
+            this.processFieldsIfPreValidatorFails = source.processFieldsIfPreValidatorFails;
+            this.postValidateIfFieldValidatorFails = source.postValidateIfFieldValidatorFails;
+            this.stopOnFirstInvalidField = source.stopOnFirstInvalidField;
+            this.appendFieldPrefix = source.appendFieldPrefix;
+            this.detectCycles = source.detectCycles;
+            this.prefix = source.prefix != null ? source.prefix.toString() : null;
+            this.listener = source.listener;
+
+            int size = source.fieldValidators != null ? source.fieldValidators.size() : 0;
+            this.fieldNames = new CharSequence[size];
+            this.fieldPathExpressions = new FieldPath[size];
+            this.fieldPaths = new CharSequence[size];
+            this.fieldPrefixes = new CharSequence[size];
+            this.accessors = new FieldAccessor[size];
+            this.validators = new IValidator[size][];
+
+            if (size == 0)
+                return;
+
+            int i = 0;
+            for (CharSequence fieldName : source.fieldValidators.keySet()) {
+                FieldPath path = source.fieldPathExpression(fieldName);
+                FieldAccessor accessor = type != null && path == null
+                        ? resolveAccessor(type, fieldName, strict) : null;
+                if (accessor == null && type != null && path == null)
+                    throw new UnresolvableFieldException();
+
+                this.fieldNames[i] = fieldName;
+                this.fieldPathExpressions[i] = path;
+                this.fieldPaths[i] = source.fieldPath(fieldName);
+                this.fieldPrefixes[i] = source.resultPrefix(fieldName);
+                this.accessors[i++] = accessor;
+            }
+
+            // all fields are resolved, nested validators may refer to this one from now on
+            Map<Class<?>, Compiled<?>> byType = compiled.get(source);
+            if (byType == null) {
+                byType = new HashMap<Class<?>, Compiled<?>>();
+                compiled.put(source, byType);
+            }
+            byType.put(type, this);
+
+            i = 0;
+            for (IValidator<?>[] validators : source.fieldValidators.values()) {
+                IValidator<?>[] fieldValidators = validators.clone();
+
+                Class<?> fieldType =
+                        this.accessors[i] != null ? this.accessors[i].getField().getType() : null;
+                for (int j = 0; j < fieldValidators.length; j++) {
+                    if (fieldValidators[j] instanceof HierarchicalValidator
+                            && (fieldType == null || !fieldType.isPrimitive()))
+                        fieldValidators[j] = compileNested(
+                                (HierarchicalValidator) fieldValidators[j], fieldType, compiled);
+                    else
+                        fieldValidators[j] = build(fieldValidators[j]);
+                }
+                this.validators[i++] = fieldValidators;
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @see IValidator#validate(java.lang.Object)
+         */
+        public ValidationResult validate(T obj) {
+            ValidationResult.Builder out = this.validate(obj, null, null);
+            return out != null ? out.buildModifiable() : ValidationResult.unmodifiableEmpty();
+        }
+
+        /**
+         * @see HierarchicalValidator#validate(Object, CharSequence, ValidationResult.Builder)
+         */
+        ValidationResult.Builder validate(T obj, CharSequence outerPrefix,
+                                          ValidationResult.Builder out) {
+            if (!this.detectCycles || obj == null)
+                return this.validateObject(obj, outerPrefix, out);
+
+            Map<Object, Object> validating = HierarchicalValidator.validating.get();
+            if (validating.put(obj, obj) != null)
+                return out;
+
+            try {
+                return this.validateObject(obj, outerPrefix, out);
+            } finally {
+                validating.remove(obj);
+            }
+        }
+
+        private ValidationResult.Builder validateObject(T obj, CharSequence outerPrefix,
+                                                        ValidationResult.Builder out) {
+            int appended = appended(out);
+            out = addResult(out, outerPrefix, this.prefix, this.preValidate(obj));
+
+            if (appended(out) != appended && !this.processFieldsIfPreValidatorFails)
+                return out;
+
+            for (int i = 0; i < this.accessors.length; i++) {
+                out = this.observeField(obj, i, outerPrefix, out);
+
+                if (this.stopOnFirstInvalidField && appended(out) != appended)
+                    break;
+            }
+
+            if (appended(out) == appended || this.postValidateIfFieldValidatorFails)
+                out = addResult(out, outerPrefix, this.prefix, this.postValidate(obj));
+
+            return out;
+        }
+
+        private ValidationResult.Builder observeField(T obj, int i, CharSequence outerPrefix,
+                                                      ValidationResult.Builder out) {
+            IValidationListener listener = this.listener;
+            if (listener == null)
+                return this.validateField(obj, i, outerPrefix, out);
+
+            long start = System.nanoTime();
+            int appended = appended(out);
+            out = this.validateField(obj, i, outerPrefix, out);
+            listener.fieldCompleted(this.fieldPaths[i], appended(out) == appended,
+                    System.nanoTime() - start);
+            return out;
+        }
+
+        private ValidationResult.Builder validateField(T obj, int i, CharSequence outerPrefix,
+                                                       ValidationResult.Builder out) {
+            if (this.fieldPathExpressions[i] != null)
+                return validatePath(obj, this.fieldPathExpressions[i], this.validators[i],
+                        outerPrefix, this.prefix, this.appendFieldPrefix, out);
+
+            if (this.type == null || obj != null && obj.getClass() != this.type)
+                return HierarchicalValidator.validateField(obj, this.fieldNames[i],
+                        this.validators[i], outerPrefix, this.fieldPrefixes[i], out);
+
+            return HierarchicalValidator.validateField(obj, this.accessors[i], this.validators[i],
+                    outerPrefix, this.fieldPrefixes[i], out);
+        }
+
+        private ValidationResult preValidate(T obj) {
+            if (this.hooks != null)
+                return this.hooks.preValidate(obj);
+
+            return this.preValidator != null ? this.preValidator.validate(obj) : null;
         }
 
+        private ValidationResult postValidate(T obj) {
+            if (this.hooks != null)
+                return this.hooks.postValidate(obj);
+
+            return this.postValidator != null ? this.postValidator.validate(obj) : null;
+        }
+
+        /**
+         * Compiles nested validator for the declared field type. If the declared type doesn't
+         * declare the validated fields (e.g. they are declared by a subtype only), the nested
+         * validator is built without type (see {@link HierarchicalValidator#build()}), so it's
+         * still an immutable snapshot. Recursive validator structures are compiled only once per
+         * type.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static IValidator<?> compileNested(
+                HierarchicalValidator validator, Class<?> fieldType,
+                Map<HierarchicalValidator<?>, Map<Class<?>, Compiled<?>>> compiled) {
+            Map<Class<?>, Compiled<?>> byType = compiled.get(validator);
+            if (byType != null && byType.containsKey(fieldType))
+                return byType.get(fieldType);
+
+            if (fieldType != null) {
+                try {
+                    return new Compiled(validator, fieldType, false, compiled);
+                } catch (UnresolvableFieldException e) {
+                    return compileNested(validator, null, compiled);
+                }
+            }
+            return new Compiled(validator, null, false, compiled);
+        }
+
+        /**
+         * Returns immutable snapshot of the given validator, if it's a {@link Validator}.
+         */
+        private static <V> IValidator<V> build(IValidator<V> validator) {
+            return validator instanceof Validator ? ((Validator<V>) validator).build() : validator;
+        }
+
+        private static FieldAccessor resolveAccessor(Class<?> type, CharSequence fieldName,
+                                                     boolean strict) {
+            try {
+                return FieldAccessor.of(type, fieldName);
+            } catch (NoSuchFieldException e) {
+                if (!strict)
+                    return null;
+
+                throw new IllegalArgumentException("Type '" + type + "' has no field '"
+                        + fieldName + "'.", e);
+            }
+        }
+    }
+
+    /**
+     * Signals that a nested validator can't be compiled for the declared field type.
+     */
+    private static final class UnresolvableFieldException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnresolvableFieldException() {
+            super(null, null, false, false);
+        }
     }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+/**
+ * Validation check specialized for <tt>long</tt> values. {@link Validator} and
+ * {@link HierarchicalValidator} call {@link #isSatisfied(long)} directly for <tt>long</tt> fields,
+ * so the value is never boxed.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public interface ILongValidationCheck extends IValidationCheck<Long> {
+
+    /**
+     * Executes validation check on given value and returns true, if the check was successful.
+     * Otherwise returns false.
+     *
+     * @param value is a value to check.
+     * @return true if this check was successful, otherwise false.
+     */
+    boolean isSatisfied(long value);
+
+    /**
+     * Unboxes the given value and delegates to {@link #isSatisfied(long)}; <tt>null</tt> never
+     * satisfies the check.
+     *
+     * @see IValidationCheck#isSatisfied(java.lang.Object)
+     */
+    default boolean isSatisfied(Long obj) {
+        return obj != null && this.isSatisfied(obj.longValue());
+    }
+}
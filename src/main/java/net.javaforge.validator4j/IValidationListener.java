@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+/**
+ * Listener notified by {@link Validator} and {@link HierarchicalValidator} about every executed
+ * validation check and every validated field (see {@link Validator#withListener} and
+ * {@link HierarchicalValidator#withListener}). The validators don't measure anything, if no
+ * listener is installed.
+ * <br><br>
+ * Listeners are called in the validating thread, possibly by several threads concurrently, so
+ * implementations must be thread-safe and cheap. See {@link ValidationMetrics} for an in-memory
+ * implementation.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public interface IValidationListener {
+
+    /**
+     * Called after a validation check was executed.
+     *
+     * @param msg       is a validation message associated with the check.
+     * @param satisfied is true, if the check was successful.
+     * @param nanos     is a duration of the check in nanoseconds.
+     */
+    void checkCompleted(IValidationMessage msg, boolean satisfied, long nanos);
+
+    /**
+     * Called after the validator chain of an object field was executed.
+     *
+     * @param fieldPath is a name of the field prefixed by the validator's prefix (if any).
+     * @param valid     is true, if all field validators succeeded.
+     * @param nanos     is a duration of the field validation in nanoseconds.
+     */
+    void fieldCompleted(CharSequence fieldPath, boolean valid, long nanos);
+}
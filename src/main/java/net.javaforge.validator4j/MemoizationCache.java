@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe cache holding at most <tt>maxSize</tt> entries, each for at most
+ * <tt>expireAfterNanos</tt> nanoseconds. If adding a new key exceeds <tt>maxSize</tt>, the oldest
+ * of a small sample of the other entries is evicted. The sample is taken in the iteration order of
+ * the underlying hash map, so entries in its first buckets are evicted more likely than others.
+ * Hits, misses and evictions are counted.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+final class MemoizationCache<K, V> {
+
+    /**
+     * Number of entries inspected to pick the entry to evict.
+     */
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<K, Entry<V>>();
+
+    private final int maxSize;
+
+    private final long expireAfterNanos;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    MemoizationCache(int maxSize, long expireAfterNanos) {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("Parameter 'maxSize' cannot be less than 1!");
+        if (expireAfterNanos < 1)
+            throw new IllegalArgumentException("Parameter 'expireAfter' must be positive!");
+
+        this.maxSize = maxSize;
+        this.expireAfterNanos = expireAfterNanos;
+    }
+
+    /**
+     * Returns value cached for the given key or null, if there is no such (unexpired) value.
+     *
+     * @param key is a key to look up.
+     * @return cached value or null.
+     */
+    V get(K key) {
+        Entry<V> entry = this.entries.get(key);
+        if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+            this.hits.increment();
+            return entry.value;
+        }
+
+        if (entry != null && this.entries.remove(key, entry))
+            this.evictions.increment();
+
+        this.misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches the given value for the given key. Only adding a new key evicts other entries,
+     * replacing the value of a cached key doesn't.
+     *
+     * @param key   is a key of the value.
+     * @param value is a value to cache.
+     */
+    void put(K key, V value) {
+        Entry<V> entry = new Entry<V>(value, System.nanoTime() + this.expireAfterNanos);
+        if (this.entries.put(key, entry) != null)
+            return;
+
+        // every put adding a key shrinks the cache back to maxSize, so concurrent puts can't
+        // make it grow past maxSize for longer than they take
+        while (this.entries.size() > this.maxSize) {
+            if (!this.evictOne(key))
+                break;
+        }
+    }
+
+    long getHitCount() {
+        return this.hits.sum();
+    }
+
+    long getMissCount() {
+        return this.misses.sum();
+    }
+
+    long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Evicts the oldest entry of a sample of the entries other than <tt>keep</tt>.
+     *
+     * @return false, if there is no other entry to evict.
+     */
+    private boolean evictOne(K keep) {
+        Map.Entry<K, Entry<V>> oldest = null;
+        Iterator<Map.Entry<K, Entry<V>>> it = this.entries.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE_SIZE && it.hasNext(); ) {
+            Map.Entry<K, Entry<V>> candidate = it.next();
+            if (candidate.getKey().equals(keep))
+                continue;
+
+            if (oldest == null
+                    || candidate.getValue().expiresAt - oldest.getValue().expiresAt < 0)
+                oldest = candidate;
+            i++;
+        }
+
+        if (oldest == null)
+            return false;
+
+        if (this.entries.remove(oldest.getKey(), oldest.getValue()))
+            this.evictions.increment();
+        return true;
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -16,8 +16,16 @@
 
 package net.javaforge.validator4j;
 
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
 import java.util.regex.Pattern;
 
 /**
@@ -28,44 +36,71 @@ import java.util.regex.Pattern;
  */
 public class PredefinedChecks {
 
+    /**
+     * Minimal number of values, from which {@link #in(Comparable[])} looks values up in an index
+     * instead of scanning them.
+     */
+    static final int IN_INDEX_THRESHOLD = 16;
+
+    /**
+     * Maximal range of the values, for which {@link #inInts(int...)} uses a bit set.
+     */
+    private static final int MAX_BIT_SET_RANGE = 1 << 16;
+
+    /**
+     * Types whose <tt>compareTo</tt> is consistent with <tt>equals</tt>, so their values can be
+     * looked up in a hash set instead of being compared.
+     */
+    private static final Set<Class<?>> HASHABLE_TYPES = new HashSet<Class<?>>(
+            Arrays.<Class<?>>asList(String.class, Long.class, Short.class, Byte.class,
+                    Character.class, Boolean.class, UUID.class));
+
     private PredefinedChecks() {
         // invisible constructor
     }
 
     /**
      * Returns validation check that tests whether date is in the future.
+     * The current time is read on every check, the returned check is time-dependent (see
+     * {@link ITimeDependent}).
      *
      * @return validation check that tests whether date is in the future.
      */
     public static IValidationCheck<Date> inTheFuture() {
-        return after(new Date());
+        return new TemporalCheck<Date>(Clock.systemDefaultZone(), TemporalCheck.FUTURE, false);
     }
 
     /**
      * Returns validation check that tests whether date is in the future or null.
+     * The current time is read on every check, the returned check is time-dependent (see
+     * {@link ITimeDependent}).
      *
      * @return validation check that tests whether date is in the future or null
      */
     public static IValidationCheck<Date> inTheFutureOrNull() {
-        return afterOrNull(new Date());
+        return new TemporalCheck<Date>(Clock.systemDefaultZone(), TemporalCheck.FUTURE, true);
     }
 
     /**
      * Returns validation check that tests whether date is in the past.
+     * The current time is read on every check, the returned check is time-dependent (see
+     * {@link ITimeDependent}).
      *
      * @return validation check that tests whether date is in the past.
      */
     public static IValidationCheck<Date> inThePast() {
-        return before(new Date());
+        return new TemporalCheck<Date>(Clock.systemDefaultZone(), TemporalCheck.PAST, false);
     }
 
     /**
      * Returns validation check that tests whether date is in the past or null.
+     * The current time is read on every check, the returned check is time-dependent (see
+     * {@link ITimeDependent}).
      *
      * @return validation check that tests whether date is in the past or null.
      */
     public static IValidationCheck<Date> inThePastOrNull() {
-        return beforeOrNull(new Date());
+        return new TemporalCheck<Date>(Clock.systemDefaultZone(), TemporalCheck.PAST, true);
     }
 
     /**
@@ -190,7 +225,7 @@ public class PredefinedChecks {
     public static IValidationCheck<Date> sameDay(final Date value) {
         return new IValidationCheck<Date>() {
             public boolean isSatisfied(Date obj) {
-                return obj != null && DateUtils.isSameDay(obj, value);
+                return obj != null && isSameDay(obj, value);
 
             }
         };
@@ -204,12 +239,76 @@ public class PredefinedChecks {
     public static IValidationCheck<Date> sameDayOrNull(final Date value) {
         return new IValidationCheck<Date>() {
             public boolean isSatisfied(Date obj) {
-                return obj == null || DateUtils.isSameDay(obj, value);
+                return obj == null || isSameDay(obj, value);
 
             }
         };
     }
 
+    /**
+     * Same as {@link DateUtils#isSameDay(Date, Date)} without creating calendars. The default
+     * time zone is read on every call, as by {@link java.util.Calendar#getInstance()}.
+     */
+    private static boolean isSameDay(Date date1, Date date2) {
+        TimeZone timeZone = TimeZone.getDefault();
+        return DateUtils.epochDay(date1, timeZone) == DateUtils.epochDay(date2, timeZone);
+    }
+
+    /**
+     * Returns validation check that tests whether temporal value is after the current instant of
+     * the given clock. Supported are {@link Date}, {@link java.time.Instant},
+     * {@link java.time.LocalDate} (compared by day), {@link java.time.LocalDateTime} (in the zone
+     * of the clock), {@link java.time.OffsetDateTime} and {@link java.time.ZonedDateTime}. The
+     * clock is read on every check, the returned check is time-dependent (see
+     * {@link ITimeDependent}).
+     *
+     * @param <T>   is a type of the temporal value.
+     * @param clock is a clock providing the current instant.
+     * @return validation check that tests whether temporal value is in the future.
+     */
+    public static <T> IValidationCheck<T> inTheFuture(Clock clock) {
+        return new TemporalCheck<T>(clock, TemporalCheck.FUTURE, false);
+    }
+
+    /**
+     * see {@link #inTheFuture(Clock)}. Null values are valid.
+     */
+    public static <T> IValidationCheck<T> inTheFutureOrNull(Clock clock) {
+        return new TemporalCheck<T>(clock, TemporalCheck.FUTURE, true);
+    }
+
+    /**
+     * Returns validation check that tests whether temporal value is before the current instant of
+     * the given clock. See {@link #inTheFuture(Clock)} for the supported types.
+     *
+     * @param <T>   is a type of the temporal value.
+     * @param clock is a clock providing the current instant.
+     * @return validation check that tests whether temporal value is in the past.
+     */
+    public static <T> IValidationCheck<T> inThePast(Clock clock) {
+        return new TemporalCheck<T>(clock, TemporalCheck.PAST, false);
+    }
+
+    /**
+     * see {@link #inThePast(Clock)}. Null values are valid.
+     */
+    public static <T> IValidationCheck<T> inThePastOrNull(Clock clock) {
+        return new TemporalCheck<T>(clock, TemporalCheck.PAST, true);
+    }
+
+    /**
+     * Returns validation check that tests whether temporal value is on the current day of the
+     * given clock (in the clock's time zone). See {@link #inTheFuture(Clock)} for the supported
+     * types.
+     *
+     * @param <T>   is a type of the temporal value.
+     * @param clock is a clock providing the current day.
+     * @return validation check that tests whether temporal value is today.
+     */
+    public static <T> IValidationCheck<T> today(Clock clock) {
+        return new TemporalCheck<T>(clock, TemporalCheck.TODAY, false);
+    }
+
     /**
      * Returns validation check that tests whether collection is not null and not empty.
      *
@@ -252,6 +351,141 @@ public class PredefinedChecks {
         };
     }
 
+    /**
+     * Returns validation check that is satisfied, if both given checks are satisfied. The second
+     * check is not executed, if the first one fails.
+     *
+     * @param <T>    is a generic type of the object to check.
+     * @param check1 is a first check to execute.
+     * @param check2 is a second check to execute.
+     * @return validation check that tests whether both given checks are satisfied.
+     */
+    public static <T> IValidationCheck<T> and(final IValidationCheck<? super T> check1,
+                                              final IValidationCheck<? super T> check2) {
+        return combined(new IValidationCheck<T>() {
+            public boolean isSatisfied(T obj) {
+                return check1.isSatisfied(obj) && check2.isSatisfied(obj);
+            }
+        }, check1, check2);
+    }
+
+    /**
+     * Returns validation check that is satisfied, if at least one of the given checks is
+     * satisfied. The second check is not executed, if the first one succeeds.
+     *
+     * @param <T>    is a generic type of the object to check.
+     * @param check1 is a first check to execute.
+     * @param check2 is a second check to execute.
+     * @return validation check that tests whether one of the given checks is satisfied.
+     */
+    public static <T> IValidationCheck<T> or(final IValidationCheck<? super T> check1,
+                                             final IValidationCheck<? super T> check2) {
+        return combined(new IValidationCheck<T>() {
+            public boolean isSatisfied(T obj) {
+                return check1.isSatisfied(obj) || check2.isSatisfied(obj);
+            }
+        }, check1, check2);
+    }
+
+    /**
+     * Returns validation check that is satisfied, if the given check fails.
+     *
+     * @param <T>   is a generic type of the object to check.
+     * @param check is a check to negate.
+     * @return validation check that tests whether the given check fails.
+     */
+    public static <T> IValidationCheck<T> not(final IValidationCheck<? super T> check) {
+        return combined(new IValidationCheck<T>() {
+            public boolean isSatisfied(T obj) {
+                return !check.isSatisfied(obj);
+            }
+        }, check);
+    }
+
+    /**
+     * Returns validation check that is satisfied, if all given checks are satisfied. The checks
+     * are executed in the given order until the first one fails. Without checks the returned
+     * check is always satisfied.
+     *
+     * @param <T>    is a generic type of the object to check.
+     * @param checks is an array of checks to execute.
+     * @return validation check that tests whether all given checks are satisfied.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> IValidationCheck<T> allOf(IValidationCheck<? super T>... checks) {
+        final IValidationCheck<? super T>[] allChecks = checks.clone();
+        return combined(new IValidationCheck<T>() {
+            public boolean isSatisfied(T obj) {
+                for (int i = 0; i < allChecks.length; i++) {
+                    if (!allChecks[i].isSatisfied(obj))
+                        return false;
+                }
+                return true;
+            }
+        }, allChecks);
+    }
+
+    /**
+     * Returns validation check that is satisfied, if at least one of the given checks is
+     * satisfied. The checks are executed in the given order until the first one succeeds. Without
+     * checks the returned check is never satisfied.
+     *
+     * @param <T>    is a generic type of the object to check.
+     * @param checks is an array of checks to execute.
+     * @return validation check that tests whether one of the given checks is satisfied.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> IValidationCheck<T> anyOf(IValidationCheck<? super T>... checks) {
+        final IValidationCheck<? super T>[] anyChecks = checks.clone();
+        return combined(new IValidationCheck<T>() {
+            public boolean isSatisfied(T obj) {
+                for (int i = 0; i < anyChecks.length; i++) {
+                    if (anyChecks[i].isSatisfied(obj))
+                        return true;
+                }
+                return false;
+            }
+        }, anyChecks);
+    }
+
+    /**
+     * Returns validation check that is satisfied, if the object is null or the given check is
+     * satisfied. The given check is not executed for null.
+     *
+     * @param <T>   is a generic type of the object to check.
+     * @param check is a check to execute for not null objects.
+     * @return validation check that tests whether the object is null or satisfies the given check.
+     */
+    public static <T> IValidationCheck<T> nullOr(final IValidationCheck<? super T> check) {
+        return combined(new IValidationCheck<T>() {
+            public boolean isSatisfied(T obj) {
+                return obj == null || check.isSatisfied(obj);
+            }
+        }, check);
+    }
+
+    /**
+     * Returns the combined check marked as time-dependent, if one of its parts is time-dependent.
+     * Otherwise returns the combined check itself.
+     */
+    private static <T> IValidationCheck<T> combined(IValidationCheck<T> check,
+                                                    IValidationCheck<?>... parts) {
+        for (IValidationCheck<?> part : parts) {
+            if (part instanceof ITimeDependent)
+                return timeDependent(check);
+        }
+        return check;
+    }
+
+    /**
+     * Returns the given check marked as time-dependent (see {@link ITimeDependent}).
+     */
+    private static <T> IValidationCheck<T> timeDependent(IValidationCheck<T> check) {
+        return new TimeDependentCheck<T>(check);
+    }
+
     /**
      * Returns validation check that tests whether string is not blank (not null, not empty and is not whitespaces
      * only).
@@ -451,6 +685,38 @@ public class PredefinedChecks {
         };
     }
 
+    /**
+     * Returns validation check that tests whether charsequence is not null and is a valid email address. The check
+     * accepts exactly the same input as {@link PredefinedPatterns#email()}, but runs in a single pass without
+     * regular expression matching.
+     *
+     * @return validation check that tests whether charsequence is not null and is a valid email address.
+     */
+    public static IValidationCheck<CharSequence> email() {
+        return new IValidationCheck<CharSequence>() {
+            public boolean isSatisfied(CharSequence obj) {
+                return obj != null && CharSequenceMatchers.isEmail(obj);
+
+            }
+        };
+    }
+
+    /**
+     * Returns validation check that tests whether charsequence is not null and is a valid telephone number. The check
+     * accepts exactly the same input as {@link PredefinedPatterns#phone()}, but runs in a single pass without
+     * regular expression matching.
+     *
+     * @return validation check that tests whether charsequence is not null and is a valid telephone number.
+     */
+    public static IValidationCheck<CharSequence> phone() {
+        return new IValidationCheck<CharSequence>() {
+            public boolean isSatisfied(CharSequence obj) {
+                return obj != null && CharSequenceMatchers.isPhone(obj);
+
+            }
+        };
+    }
+
     /**
      * Returns validation check that tests whether charsequence is not null and is equals to the given test object.
      *
@@ -482,12 +748,20 @@ public class PredefinedChecks {
 
     /**
      * Returns validation check that tests whether {@link Comparable} is one of the given values.
+     * <br><br>
+     * From {@link #IN_INDEX_THRESHOLD} values on, the values are indexed: {@link Integer}s are
+     * looked up as in {@link #inInts(int...)}, enums in an {@link EnumSet}, strings, longs and
+     * other types with <tt>compareTo</tt> consistent with <tt>equals</tt> in a hash set and all
+     * other values by binary search (see {@link #inSorted(Comparable[])}).
      *
      * @param <T>    is a generic type of {@link Comparable}
      * @param values is an array of comparable values to check against.
      * @return validation check that tests whether {@link Comparable} is one of the given values
      */
     public static <T extends Comparable<T>> IValidationCheck<T> in(final T... values) {
+        if (values != null && values.length >= IN_INDEX_THRESHOLD && !containsNull(values))
+            return indexedIn(values);
+
         return new IValidationCheck<T>() {
             public boolean isSatisfied(T obj) {
                 if (obj == null)
@@ -505,6 +779,143 @@ public class PredefinedChecks {
         };
     }
 
+    /**
+     * Returns validation check that tests whether the object is one of the given values (compared by
+     * <tt>equals</tt>). The values are copied into a hash set (or an {@link EnumSet}, if the given
+     * collection is one), so the check takes constant time regardless of the number of values.
+     *
+     * @param <T>    is a generic type of the object to check.
+     * @param values is a collection of the allowed values.
+     * @return validation check that tests whether the object is one of the given values.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> IValidationCheck<T> in(Collection<? extends T> values) {
+        final Set<?> allowed = values instanceof EnumSet
+                ? EnumSet.copyOf((EnumSet) values) : new HashSet<T>(values);
+
+        return new IValidationCheck<T>() {
+            public boolean isSatisfied(T obj) {
+                return allowed.contains(obj);
+            }
+        };
+    }
+
+    /**
+     * Returns validation check that tests whether {@link Comparable} is one of the given values
+     * (compared by <tt>compareTo</tt>). The values are sorted once and looked up by binary search.
+     *
+     * @param <T>    is a generic type of {@link Comparable}
+     * @param values is an array of comparable (not null) values to check against.
+     * @return validation check that tests whether {@link Comparable} is one of the given values
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T extends Comparable<? super T>> IValidationCheck<T> inSorted(final T... values) {
+        final Object[] sorted = values != null ? values.clone() : null;
+        if (sorted != null)
+            Arrays.sort(sorted);
+
+        return new IValidationCheck<T>() {
+            public boolean isSatisfied(T obj) {
+                if (obj == null || sorted == null)
+                    return obj == null && sorted == null;
+
+                return Arrays.binarySearch(sorted, obj) >= 0;
+            }
+        };
+    }
+
+    /**
+     * Returns validation check that tests whether <tt>int</tt> is one of the given values. Values
+     * spanning a small range are looked up in a bit set, other values by binary search. The
+     * returned check implements {@link IIntValidationCheck}.
+     *
+     * @param values is an array of the allowed values.
+     * @return validation check that tests whether <tt>int</tt> is one of the given values.
+     */
+    public static IValidationCheck<Integer> inInts(int... values) {
+        if (values.length == 0) {
+            return new IIntValidationCheck() {
+                public boolean isSatisfied(int value) {
+                    return false;
+                }
+            };
+        }
+
+        final int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        final int min = sorted[0];
+        int max = sorted[sorted.length - 1];
+
+        if ((long) max - min >= MAX_BIT_SET_RANGE) {
+            return new IIntValidationCheck() {
+                public boolean isSatisfied(int value) {
+                    return Arrays.binarySearch(sorted, value) >= 0;
+                }
+            };
+        }
+
+        final BitSet bits = new BitSet(max - min + 1);
+        for (int value : sorted)
+            bits.set(value - min);
+
+        return new IIntValidationCheck() {
+            public boolean isSatisfied(int value) {
+                long offset = (long) value - min;
+                return offset >= 0 && offset < MAX_BIT_SET_RANGE && bits.get((int) offset);
+            }
+        };
+    }
+
+    /**
+     * Returns indexed check testing whether the object is one of the given (not null) values.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T extends Comparable<T>> IValidationCheck<T> indexedIn(T[] values) {
+        Class<?> type = commonType(values);
+
+        if (type == Integer.class) {
+            int[] ints = new int[values.length];
+            for (int i = 0; i < values.length; i++)
+                ints[i] = (Integer) values[i];
+
+            return (IValidationCheck) inInts(ints);
+        }
+
+        if (type != null && type.isEnum())
+            return in((Collection) EnumSet.copyOf((Collection) Arrays.asList(values)));
+
+        if (type != null && HASHABLE_TYPES.contains(type))
+            return in(Arrays.asList(values));
+
+        return inSorted(values);
+    }
+
+    /**
+     * Returns the type of all given values (the declaring class for enums) or null, if the values
+     * are of different types.
+     */
+    private static Class<?> commonType(Object[] values) {
+        Class<?> type = null;
+        for (Object value : values) {
+            Class<?> valueType = value instanceof Enum
+                    ? ((Enum<?>) value).getDeclaringClass() : value.getClass();
+            if (type == null)
+                type = valueType;
+            else if (type != valueType)
+                return null;
+        }
+        return type;
+    }
+
+    private static boolean containsNull(Object[] values) {
+        for (Object value : values) {
+            if (value == null)
+                return true;
+        }
+        return false;
+    }
+
     /**
      * Returns validation check that tests whether length of the {@link CharSequence} is in the given (inclusive)
      * range.
@@ -628,6 +1039,129 @@ public class PredefinedChecks {
         return inclusive ? inRangeInclusive(min, max) : inRangeExclusive(min, max);
     }
 
+    /**
+     * see {@link #inRangeInclusive(Number, Number)}. The returned check implements
+     * {@link IIntValidationCheck}.
+     */
+    public static IValidationCheck<Integer> inRangeInclusive(final int min, final int max) {
+        return new IIntValidationCheck() {
+            public boolean isSatisfied(int value) {
+                return value >= min && value <= max;
+            }
+        };
+    }
+
+    /**
+     * see {@link #inRangeExclusive(Number, Number)}. The returned check implements
+     * {@link IIntValidationCheck}.
+     */
+    public static IValidationCheck<Integer> inRangeExclusive(final int min, final int max) {
+        return new IIntValidationCheck() {
+            public boolean isSatisfied(int value) {
+                return value > min && value < max;
+            }
+        };
+    }
+
+    /**
+     * see {@link #inRange(Number, Number)}. The returned check implements
+     * {@link IIntValidationCheck}.
+     */
+    public static IValidationCheck<Integer> inRange(final int min, final int max) {
+        return inRangeInclusive(min, max);
+    }
+
+    /**
+     * see {@link #inRange(Number, Number, boolean)}. The returned check implements
+     * {@link IIntValidationCheck}.
+     */
+    public static IValidationCheck<Integer> inRange(final int min, final int max,
+                                                 boolean inclusive) {
+        return inclusive ? inRangeInclusive(min, max) : inRangeExclusive(min, max);
+    }
+
+    /**
+     * see {@link #inRangeInclusive(Number, Number)}. The returned check implements
+     * {@link IDoubleValidationCheck}.
+     */
+    public static IValidationCheck<Double> inRangeInclusive(final double min, final double max) {
+        return new IDoubleValidationCheck() {
+            public boolean isSatisfied(double value) {
+                return Double.compare(value, min) >= 0 && Double.compare(value, max) <= 0;
+            }
+        };
+    }
+
+    /**
+     * see {@link #inRangeExclusive(Number, Number)}. The returned check implements
+     * {@link IDoubleValidationCheck}.
+     */
+    public static IValidationCheck<Double> inRangeExclusive(final double min, final double max) {
+        return new IDoubleValidationCheck() {
+            public boolean isSatisfied(double value) {
+                return Double.compare(value, min) > 0 && Double.compare(value, max) < 0;
+            }
+        };
+    }
+
+    /**
+     * see {@link #inRange(Number, Number)}. The returned check implements
+     * {@link IDoubleValidationCheck}.
+     */
+    public static IValidationCheck<Double> inRange(final double min, final double max) {
+        return inRangeInclusive(min, max);
+    }
+
+    /**
+     * see {@link #inRange(Number, Number, boolean)}. The returned check implements
+     * {@link IDoubleValidationCheck}.
+     */
+    public static IValidationCheck<Double> inRange(final double min, final double max,
+                                                 boolean inclusive) {
+        return inclusive ? inRangeInclusive(min, max) : inRangeExclusive(min, max);
+    }
+
+    /**
+     * see {@link #inRangeInclusive(Number, Number)}. The returned check implements
+     * {@link ILongValidationCheck}.
+     */
+    public static IValidationCheck<Long> inRangeInclusive(final long min, final long max) {
+        return new ILongValidationCheck() {
+            public boolean isSatisfied(long value) {
+                return value >= min && value <= max;
+            }
+        };
+    }
+
+    /**
+     * see {@link #inRangeExclusive(Number, Number)}. The returned check implements
+     * {@link ILongValidationCheck}.
+     */
+    public static IValidationCheck<Long> inRangeExclusive(final long min, final long max) {
+        return new ILongValidationCheck() {
+            public boolean isSatisfied(long value) {
+                return value > min && value < max;
+            }
+        };
+    }
+
+    /**
+     * see {@link #inRange(Number, Number)}. The returned check implements
+     * {@link ILongValidationCheck}.
+     */
+    public static IValidationCheck<Long> inRange(final long min, final long max) {
+        return inRangeInclusive(min, max);
+    }
+
+    /**
+     * see {@link #inRange(Number, Number, boolean)}. The returned check implements
+     * {@link ILongValidationCheck}.
+     */
+    public static IValidationCheck<Long> inRange(final long min, final long max,
+                                                 boolean inclusive) {
+        return inclusive ? inRangeInclusive(min, max) : inRangeExclusive(min, max);
+    }
+
     /**
      * Returns validation check that tests whether {@link Number} is less than given threshold<br>
      *
@@ -722,129 +1256,201 @@ public class PredefinedChecks {
     }
 
     /**
-     * see {@link #lt(Number)}
+     * see {@link #lt(Number)}. The returned check implements {@link IIntValidationCheck}.
      */
     public static IValidationCheck<Integer> lt(final int threshold) {
-        return lt(Integer.valueOf(threshold));
+        return new IIntValidationCheck() {
+            public boolean isSatisfied(int value) {
+                return value < threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #lte(Number)}
+     * see {@link #lte(Number)}. The returned check implements {@link IIntValidationCheck}.
      */
     public static IValidationCheck<Integer> lte(final int threshold) {
-        return lte(Integer.valueOf(threshold));
+        return new IIntValidationCheck() {
+            public boolean isSatisfied(int value) {
+                return value <= threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #gt(Number)}
+     * see {@link #gt(Number)}. The returned check implements {@link IIntValidationCheck}.
      */
     public static IValidationCheck<Integer> gt(final int threshold) {
-        return gt(Integer.valueOf(threshold));
+        return new IIntValidationCheck() {
+            public boolean isSatisfied(int value) {
+                return value > threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #gte(Number)}
+     * see {@link #gte(Number)}. The returned check implements {@link IIntValidationCheck}.
      */
     public static IValidationCheck<Integer> gte(final int threshold) {
-        return gte(Integer.valueOf(threshold));
+        return new IIntValidationCheck() {
+            public boolean isSatisfied(int value) {
+                return value >= threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #eq(Number)}
+     * see {@link #eq(Number)}. The returned check implements {@link IIntValidationCheck}.
      */
     public static IValidationCheck<Integer> eq(final int threshold) {
-        return eq(Integer.valueOf(threshold));
+        return new IIntValidationCheck() {
+            public boolean isSatisfied(int value) {
+                return value == threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #neq(Number)}
+     * see {@link #neq(Number)}. The returned check implements {@link IIntValidationCheck}.
      */
     public static IValidationCheck<Integer> neq(final int threshold) {
-        return neq(Integer.valueOf(threshold));
+        return new IIntValidationCheck() {
+            public boolean isSatisfied(int value) {
+                return value != threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #lt(Number)}
+     * see {@link #lt(Number)}. The returned check implements {@link IDoubleValidationCheck}.
      */
     public static IValidationCheck<Double> lt(final double threshold) {
-        return lt(Double.valueOf(threshold));
+        return new IDoubleValidationCheck() {
+            public boolean isSatisfied(double value) {
+                return Double.compare(value, threshold) < 0;
+            }
+        };
     }
 
     /**
-     * see {@link #lte(Number)}
+     * see {@link #lte(Number)}. The returned check implements {@link IDoubleValidationCheck}.
      */
     public static IValidationCheck<Double> lte(final double threshold) {
-        return lte(Double.valueOf(threshold));
+        return new IDoubleValidationCheck() {
+            public boolean isSatisfied(double value) {
+                return Double.compare(value, threshold) <= 0;
+            }
+        };
     }
 
     /**
-     * see {@link #gt(Number)}
+     * see {@link #gt(Number)}. The returned check implements {@link IDoubleValidationCheck}.
      */
     public static IValidationCheck<Double> gt(final double threshold) {
-        return gt(Double.valueOf(threshold));
+        return new IDoubleValidationCheck() {
+            public boolean isSatisfied(double value) {
+                return Double.compare(value, threshold) > 0;
+            }
+        };
     }
 
     /**
-     * see {@link #gte(Number)}
+     * see {@link #gte(Number)}. The returned check implements {@link IDoubleValidationCheck}.
      */
     public static IValidationCheck<Double> gte(final double threshold) {
-        return gte(Double.valueOf(threshold));
+        return new IDoubleValidationCheck() {
+            public boolean isSatisfied(double value) {
+                return Double.compare(value, threshold) >= 0;
+            }
+        };
     }
 
     /**
-     * see {@link #eq(Number)}
+     * see {@link #eq(Number)}. The returned check implements {@link IDoubleValidationCheck}.
      */
     public static IValidationCheck<Double> eq(final double threshold) {
-        return eq(Double.valueOf(threshold));
+        return new IDoubleValidationCheck() {
+            public boolean isSatisfied(double value) {
+                return Double.compare(value, threshold) == 0;
+            }
+        };
     }
 
     /**
-     * see {@link #neq(Number)}
+     * see {@link #neq(Number)}. The returned check implements {@link IDoubleValidationCheck}.
      */
     public static IValidationCheck<Double> neq(final double threshold) {
-        return neq(Double.valueOf(threshold));
+        return new IDoubleValidationCheck() {
+            public boolean isSatisfied(double value) {
+                return Double.compare(value, threshold) != 0;
+            }
+        };
     }
 
     /**
-     * see {@link #lt(Number)}
+     * see {@link #lt(Number)}. The returned check implements {@link ILongValidationCheck}.
      */
     public static IValidationCheck<Long> lt(final long threshold) {
-        return lt(Long.valueOf(threshold));
+        return new ILongValidationCheck() {
+            public boolean isSatisfied(long value) {
+                return value < threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #lte(Number)}
+     * see {@link #lte(Number)}. The returned check implements {@link ILongValidationCheck}.
      */
     public static IValidationCheck<Long> lte(final long threshold) {
-        return lte(Long.valueOf(threshold));
+        return new ILongValidationCheck() {
+            public boolean isSatisfied(long value) {
+                return value <= threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #gt(Number)}
+     * see {@link #gt(Number)}. The returned check implements {@link ILongValidationCheck}.
      */
     public static IValidationCheck<Long> gt(final long threshold) {
-        return gt(Long.valueOf(threshold));
+        return new ILongValidationCheck() {
+            public boolean isSatisfied(long value) {
+                return value > threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #gte(Number)}
+     * see {@link #gte(Number)}. The returned check implements {@link ILongValidationCheck}.
      */
     public static IValidationCheck<Long> gte(final long threshold) {
-        return gte(Long.valueOf(threshold));
+        return new ILongValidationCheck() {
+            public boolean isSatisfied(long value) {
+                return value >= threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #eq(Number)}
+     * see {@link #eq(Number)}. The returned check implements {@link ILongValidationCheck}.
      */
     public static IValidationCheck<Long> eq(final long threshold) {
-        return eq(Long.valueOf(threshold));
+        return new ILongValidationCheck() {
+            public boolean isSatisfied(long value) {
+                return value == threshold;
+            }
+        };
     }
 
     /**
-     * see {@link #neq(Number)}
+     * see {@link #neq(Number)}. The returned check implements {@link ILongValidationCheck}.
      */
     public static IValidationCheck<Long> neq(final long threshold) {
-        return neq(Long.valueOf(threshold));
+        return new ILongValidationCheck() {
+            public boolean isSatisfied(long value) {
+                return value != threshold;
+            }
+        };
     }
 
     /**
@@ -946,4 +1552,19 @@ public class PredefinedChecks {
         };
     }
 
+    /**
+     * Validation check delegating to another one, marked as time-dependent.
+     */
+    private static final class TimeDependentCheck<T> implements IValidationCheck<T>, ITimeDependent {
+
+        private final IValidationCheck<T> check;
+
+        TimeDependentCheck(IValidationCheck<T> check) {
+            this.check = check;
+        }
+
+        public boolean isSatisfied(T obj) {
+            return this.check.isSatisfied(obj);
+        }
+    }
 }
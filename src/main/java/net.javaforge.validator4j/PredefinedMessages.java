@@ -69,7 +69,7 @@ public enum PredefinedMessages implements IValidationMessage {
      * @param args is an array of validation arguments to use in the new validation message.
      * @return copy (new instance) of this validation message
      */
-    public IValidationMessage withArgs(final CharSequence... args) {
+    public IValidationMessage withArgs(CharSequence... args) {
         return withPrefixAndArgs(null, args);
     }
 
@@ -81,25 +81,10 @@ public enum PredefinedMessages implements IValidationMessage {
      * @param args   is an array of validation arguments to use in the new validation message.
      * @return copy (new instance) of this validation message
      */
-    public IValidationMessage withPrefixAndArgs(final CharSequence prefix,
-                                                final CharSequence... args) {
-        return new IValidationMessage() {
-            private static final long serialVersionUID = 1L;
-
-            public CharSequence getKey() {
-                return prefix != null ? new StringBuffer(prefix).append(".").append(
-                        PredefinedMessages.this.getKey()) : PredefinedMessages.this.getKey();
-            }
-
-            public Severity getSeverity() {
-                return PredefinedMessages.this.getSeverity();
-            }
-
-            public CharSequence[] getArgs() {
-                return args;
-            }
-
-        };
+    public IValidationMessage withPrefixAndArgs(CharSequence prefix, CharSequence... args) {
+        return new ValidationMessageAdapter(
+                prefix != null ? prefix + "." + this.getKey() : this.getKey(),
+                this.getSeverity(), args);
     }
 
 }
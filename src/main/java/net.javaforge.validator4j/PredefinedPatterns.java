@@ -20,6 +20,10 @@ import java.util.regex.Pattern;
 
 /**
  * Collection of predefined validation regular expressions.
+ * <br><br>
+ * Patterns are compiled only once: the parameterless patterns are kept in constants and the
+ * parameterised ones in a bounded cache keyed by their arguments. Since {@link Pattern} is
+ * immutable, the returned instances can be shared freely.
  *
  * @author Maxim Kalina
  * @version $Id$
@@ -112,6 +116,20 @@ public class PredefinedPatterns {
             digitsWithHyphenOrSlashRegexp + // ###-###-###-#####
             "]";
 
+    private static final Pattern phonePattern = Pattern.compile(phoneRegexp + "+");
+
+    private static final Pattern alnumPattern = Pattern.compile(alnumRegexp + "+");
+
+    private static final Pattern alnumWithBlankPattern = Pattern.compile(alnumWithBlankRegexp + "+");
+
+    private static final Pattern numericPattern = Pattern.compile(numericRegexp + "+");
+
+    /**
+     * Cache of the patterns created by the parameterised factory methods.
+     */
+    private static final BoundedCache<PatternKey, Pattern> patternCache =
+            new BoundedCache<PatternKey, Pattern>(256);
+
     private PredefinedPatterns() {
         // empty constructor
     }
@@ -131,7 +149,7 @@ public class PredefinedPatterns {
      * @return regular expression pattern to validate telephone numbers
      */
     public static Pattern phone() {
-        return Pattern.compile(phoneRegexp + "+");
+        return phonePattern;
     }
 
     /**
@@ -140,7 +158,7 @@ public class PredefinedPatterns {
      * @return regular expression pattern to match alphanumeric strings any length
      */
     public static Pattern alnum() {
-        return Pattern.compile(alnumRegexp + "+");
+        return alnumPattern;
     }
 
     /**
@@ -158,7 +176,7 @@ public class PredefinedPatterns {
      *         european languages.
      */
     public static Pattern alnumEuropean(int flag) {
-        return Pattern.compile("[\\p{Alnum}" + determineSpecialChars(flag) + "]+");
+        return cached(new PatternKey(PatternKey.ALNUM_EUROPEAN, flag, 0, 0));
     }
 
     /**
@@ -180,8 +198,7 @@ public class PredefinedPatterns {
      */
     public static Pattern alnumEuropeanMinMax(int flag, int min, int max) {
         assertMinMax(min, max);
-        return Pattern.compile("[\\p{Alnum}" + determineSpecialChars(flag) + "]{" + min + "," + max
-                + "}");
+        return cached(new PatternKey(PatternKey.ALNUM_EUROPEAN_MIN_MAX, flag, min, max));
     }
 
     /**
@@ -200,7 +217,7 @@ public class PredefinedPatterns {
      *         european languages or blank.
      */
     public static Pattern alnumEuropeanWithBlank(int flag) {
-        return Pattern.compile("[\\p{Alnum}\\p{Blank}" + determineSpecialChars(flag) + "]+");
+        return cached(new PatternKey(PatternKey.ALNUM_EUROPEAN_WITH_BLANK, flag, 0, 0));
     }
 
     /**
@@ -221,8 +238,7 @@ public class PredefinedPatterns {
      *         european languages or blank.
      */
     public static Pattern alnumEuropeanWithBlankMinMax(int flag, int min, int max) {
-        return Pattern.compile("[\\p{Alnum}\\p{Blank}" + determineSpecialChars(flag) + "]{" + min
-                + "," + max + "}");
+        return cached(new PatternKey(PatternKey.ALNUM_EUROPEAN_WITH_BLANK_MIN_MAX, flag, min, max));
     }
 
     private static String determineSpecialChars(int flag) {
@@ -259,7 +275,7 @@ public class PredefinedPatterns {
      * @return regular expression pattern to match alphanumeric strings any length
      */
     public static Pattern alnumWithBlank() {
-        return Pattern.compile(alnumWithBlankRegexp + "+");
+        return alnumWithBlankPattern;
     }
 
     /**
@@ -268,7 +284,7 @@ public class PredefinedPatterns {
      * @return regular expression pattern to match numeric strings any length.
      */
     public static Pattern numeric() {
-        return Pattern.compile(numericRegexp + "+");
+        return numericPattern;
     }
 
     /**
@@ -281,7 +297,7 @@ public class PredefinedPatterns {
      */
     public static Pattern alnumMinMax(int min, int max) {
         assertMinMax(min, max);
-        return Pattern.compile(alnumRegexp + "{" + min + "," + max + "}");
+        return cached(new PatternKey(PatternKey.ALNUM_MIN_MAX, 0, min, max));
     }
 
     /**
@@ -295,7 +311,7 @@ public class PredefinedPatterns {
      */
     public static Pattern alnumWithBlankMinMax(int min, int max) {
         assertMinMax(min, max);
-        return Pattern.compile(alnumWithBlankRegexp + "{" + min + "," + max + "}");
+        return cached(new PatternKey(PatternKey.ALNUM_WITH_BLANK_MIN_MAX, 0, min, max));
     }
 
     /**
@@ -308,7 +324,7 @@ public class PredefinedPatterns {
      */
     public static Pattern numericMinMax(int min, int max) {
         assertMinMax(min, max);
-        return Pattern.compile(numericRegexp + "{" + min + "," + max + "}");
+        return cached(new PatternKey(PatternKey.NUMERIC_MIN_MAX, 0, min, max));
     }
 
     /**
@@ -321,7 +337,7 @@ public class PredefinedPatterns {
      */
     public static Pattern anyMinMax(int min, int max) {
         assertMinMax(min, max);
-        return Pattern.compile(anyRegexp + "{" + min + "," + max + "}", Pattern.DOTALL);
+        return cached(new PatternKey(PatternKey.ANY_MIN_MAX, 0, min, max));
     }
 
     /**
@@ -334,7 +350,15 @@ public class PredefinedPatterns {
      */
     public static Pattern phoneMinMax(int min, int max) {
         assertMinMax(min, max);
-        return Pattern.compile(phoneRegexp + "{" + min + "," + max + "}");
+        return cached(new PatternKey(PatternKey.PHONE_MIN_MAX, 0, min, max));
+    }
+
+    private static Pattern cached(PatternKey key) {
+        Pattern pattern = patternCache.get(key);
+        if (pattern == null)
+            pattern = patternCache.putIfAbsent(key, key.compile());
+
+        return pattern;
     }
 
     private static void assertMinMax(int min, int max) {
@@ -346,4 +370,92 @@ public class PredefinedPatterns {
             throw new IllegalArgumentException("Parameter 'max' cannot be less than 'min'!");
     }
 
+    /**
+     * Arguments of a parameterised pattern factory call, used as pattern cache key.
+     */
+    private static final class PatternKey {
+
+        static final int ALNUM_EUROPEAN = 1;
+
+        static final int ALNUM_EUROPEAN_MIN_MAX = 2;
+
+        static final int ALNUM_EUROPEAN_WITH_BLANK = 3;
+
+        static final int ALNUM_EUROPEAN_WITH_BLANK_MIN_MAX = 4;
+
+        static final int ALNUM_MIN_MAX = 5;
+
+        static final int ALNUM_WITH_BLANK_MIN_MAX = 6;
+
+        static final int NUMERIC_MIN_MAX = 7;
+
+        static final int ANY_MIN_MAX = 8;
+
+        static final int PHONE_MIN_MAX = 9;
+
+        private final int type;
+
+        private final int flag;
+
+        private final int min;
+
+        private final int max;
+
+        PatternKey(int type, int flag, int min, int max) {
+            this.type = type;
+            this.flag = flag;
+            this.min = min;
+            this.max = max;
+        }
+
+        Pattern compile() {
+            String minMax = "{" + min + "," + max + "}";
+            switch (type) {
+                case ALNUM_EUROPEAN:
+                    return Pattern.compile("[\\p{Alnum}" + determineSpecialChars(flag) + "]+");
+                case ALNUM_EUROPEAN_MIN_MAX:
+                    return Pattern.compile("[\\p{Alnum}" + determineSpecialChars(flag) + "]" + minMax);
+                case ALNUM_EUROPEAN_WITH_BLANK:
+                    return Pattern.compile("[\\p{Alnum}\\p{Blank}" + determineSpecialChars(flag) + "]+");
+                case ALNUM_EUROPEAN_WITH_BLANK_MIN_MAX:
+                    return Pattern.compile("[\\p{Alnum}\\p{Blank}" + determineSpecialChars(flag) + "]"
+                            + minMax);
+                case ALNUM_MIN_MAX:
+                    return Pattern.compile(alnumRegexp + minMax);
+                case ALNUM_WITH_BLANK_MIN_MAX:
+                    return Pattern.compile(alnumWithBlankRegexp + minMax);
+                case NUMERIC_MIN_MAX:
+                    return Pattern.compile(numericRegexp + minMax);
+                case ANY_MIN_MAX:
+                    return Pattern.compile(anyRegexp + minMax, Pattern.DOTALL);
+                case PHONE_MIN_MAX:
+                    return Pattern.compile(phoneRegexp + minMax);
+                default:
+                    throw new IllegalStateException("Unknown pattern type: " + type);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+
+            if (!(o instanceof PatternKey))
+                return false;
+
+            PatternKey other = (PatternKey) o;
+            return type == other.type && flag == other.flag && min == other.min
+                    && max == other.max;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type;
+            result = 31 * result + flag;
+            result = 31 * result + min;
+            result = 31 * result + max;
+            return result;
+        }
+    }
+
 }
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+/**
+ * Validation message whose key is the key of another message prepended with a prefix path.
+ * <br><br>
+ * Prefixing an already prefixed message doesn't wrap it again, but creates a single message with
+ * the combined prefix path, so nested validators don't produce wrapper chains. Static prefix paths
+ * are interned and shared between all messages using them, and the key is built at most once.
+ * Prefixes of single elements (see {@link #uninterned(String)}) are not interned, so a large
+ * collection of failing elements doesn't evict the static prefixes from the bounded caches.
+ * Prefixed messages are equal, if their prefixes and original messages are equal.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+final class PrefixedValidationMessage implements IValidationMessage {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final BoundedCache<String, String> prefixes =
+            new BoundedCache<String, String>(1024);
+
+    /**
+     * Joined prefixes by outer and inner prefix. Two levels instead of a pair key, so the lookup
+     * of an already joined prefix (e.g. per nested validator call) doesn't allocate.
+     */
+    private static final BoundedCache<String, BoundedCache<String, String>> joinedPrefixes =
+            new BoundedCache<String, BoundedCache<String, String>>(256);
+
+    private final String prefix;
+
+    private final IValidationMessage message;
+
+    /**
+     * False, if the prefix is not interned (see {@link #uninterned(String)}). Deserialized
+     * prefixes are not interned either.
+     */
+    private final transient boolean interned;
+
+    private transient String key;
+
+    private transient int hash;
+
+    private PrefixedValidationMessage(String prefix, IValidationMessage message,
+                                      boolean interned) {
+        this.prefix = prefix;
+        this.message = message;
+        this.interned = interned;
+    }
+
+    /**
+     * Returns message with the key of the given message prepended with the prefix.
+     *
+     * @param prefix  is a prefix to prepend.
+     * @param message is a message to prefix.
+     * @return prefixed message.
+     */
+    static PrefixedValidationMessage of(CharSequence prefix, IValidationMessage message) {
+        boolean interned = !(prefix instanceof Uninterned);
+        String p = interned ? intern(String.valueOf(prefix)) : prefix.toString();
+        if (message instanceof PrefixedValidationMessage) {
+            PrefixedValidationMessage prefixed = (PrefixedValidationMessage) message;
+            if (interned && prefixed.interned)
+                return new PrefixedValidationMessage(join(p, prefixed.prefix), prefixed.message,
+                        true);
+
+            return new PrefixedValidationMessage(p + "." + prefixed.prefix, prefixed.message,
+                    false);
+        }
+        return new PrefixedValidationMessage(p, message, interned);
+    }
+
+    /**
+     * Returns prefix which is never interned, e.g. the path of a single element selected by a
+     * field path (<tt>items[3].price</tt>). Prefix paths joined with it and messages prefixed
+     * with it are not interned either.
+     *
+     * @param prefix is a prefix.
+     * @return not interned prefix.
+     */
+    static CharSequence uninterned(String prefix) {
+        return new Uninterned(prefix);
+    }
+
+    /**
+     * Returns the prefix path of this message.
+     *
+     * @return the prefix path of this message.
+     */
+    String getPrefix() {
+        return this.prefix;
+    }
+
+    /**
+     * Returns the original, not prefixed message.
+     *
+     * @return the original message.
+     */
+    IValidationMessage getMessage() {
+        return this.message;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see IValidationMessage#getKey()
+     */
+    public CharSequence getKey() {
+        String k = this.key;
+        if (k == null) {
+            k = this.prefix + "." + this.message.getKey();
+            this.key = k;
+        }
+        return k;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see IValidationMessage#getSeverity()
+     */
+    public Severity getSeverity() {
+        return this.message.getSeverity();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see IValidationMessage#getArgs()
+     */
+    public CharSequence[] getArgs() {
+        return this.message.getArgs();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        if (!(o instanceof PrefixedValidationMessage))
+            return false;
+
+        PrefixedValidationMessage other = (PrefixedValidationMessage) o;
+        return this.hashCode() == other.hashCode() && this.prefix.equals(other.prefix)
+                && this.message.equals(other.message);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int h = this.hash;
+        if (h == 0) {
+            h = 31 * this.prefix.hashCode() + this.message.hashCode();
+            this.hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Returns the prefix path <tt>outer.inner</tt>. If one of the prefixes is null, the other one
+     * is returned. If one of the prefixes is not interned (see {@link #uninterned(String)}), the
+     * joined prefix path is not interned either.
+     *
+     * @param outer is an outer prefix or null.
+     * @param inner is an inner prefix or null.
+     * @return joined prefix path.
+     */
+    static CharSequence join(CharSequence outer, CharSequence inner) {
+        if (outer == null)
+            return inner;
+
+        if (inner == null)
+            return outer;
+
+        if (outer instanceof Uninterned || inner instanceof Uninterned)
+            return new Uninterned(outer + "." + inner);
+
+        return join(outer.toString(), inner.toString());
+    }
+
+    private static String intern(String prefix) {
+        String interned = prefixes.get(prefix);
+        return interned != null ? interned : prefixes.putIfAbsent(prefix, prefix);
+    }
+
+    private static String join(String outer, String inner) {
+        BoundedCache<String, String> joined = joinedPrefixes.get(outer);
+        if (joined == null)
+            joined = joinedPrefixes.putIfAbsent(outer, new BoundedCache<String, String>(16));
+
+        String prefix = joined.get(inner);
+        return prefix != null ? prefix : joined.putIfAbsent(inner, intern(outer + "." + inner));
+    }
+
+    /**
+     * Prefix which is not interned (see {@link #uninterned(String)}).
+     */
+    private static final class Uninterned implements CharSequence {
+
+        private final String prefix;
+
+        Uninterned(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public int length() {
+            return this.prefix.length();
+        }
+
+        public char charAt(int index) {
+            return this.prefix.charAt(index);
+        }
+
+        public CharSequence subSequence(int start, int end) {
+            return this.prefix.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return this.prefix;
+        }
+    }
+}
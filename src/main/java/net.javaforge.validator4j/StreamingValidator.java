@@ -0,0 +1,173 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Validates objects lazily while they are consumed, so huge inputs can be validated without
+ * keeping all results in memory. The stage is pull-based: an object is read from the source and
+ * validated only when the consumer asks for the next element, which bounds the work in flight to
+ * a single object and propagates the consumer's pace back to the source.
+ * <br><br>
+ * Invalid objects are emitted by default. They can be dropped (see {@link #dropInvalid()}) or
+ * routed to a side sink instead (see {@link #routeInvalidTo(Consumer)}). Iterators and streams
+ * keep the configuration at the time they were created.
+ * <br><br>
+ * Example:
+ * <p/>
+ * <pre>
+ * Iterator&lt;Validated&lt;Record&gt;&gt; it = new StreamingValidator&lt;Record&gt;(recordValidator)
+ *         .routeInvalidTo(errorWriter)
+ *         .validate(csvReader);
+ * </pre>
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class StreamingValidator<T> {
+
+    private final IValidator<T> validator;
+
+    private boolean dropInvalid;
+
+    private Consumer<? super Validated<T>> invalidSink;
+
+    public StreamingValidator(IValidator<T> validator) {
+        if (validator == null)
+            throw new IllegalArgumentException("Parameter 'validator' cannot be null!");
+
+        this.validator = validator;
+    }
+
+    /**
+     * Invalid objects will not be emitted.
+     *
+     * @return this streaming validator.
+     */
+    public StreamingValidator<T> dropInvalid() {
+        this.dropInvalid = true;
+        return this;
+    }
+
+    /**
+     * Invalid objects will be passed to the given sink instead of being emitted. Passing null
+     * removes the sink again; invalid objects are emitted afterwards, unless
+     * {@link #dropInvalid()} was called.
+     *
+     * @param sink is a consumer of the invalid objects or null.
+     * @return this streaming validator.
+     */
+    public StreamingValidator<T> routeInvalidTo(Consumer<? super Validated<T>> sink) {
+        this.invalidSink = sink;
+        return this;
+    }
+
+    /**
+     * Returns iterator validating objects of the given iterable on demand.
+     *
+     * @param objects is an iterable of the objects to validate.
+     * @return iterator of the validated objects.
+     */
+    public Iterator<Validated<T>> validate(Iterable<? extends T> objects) {
+        return this.validate(objects.iterator());
+    }
+
+    /**
+     * Returns iterator validating objects of the given iterator on demand.
+     *
+     * @param objects is an iterator of the objects to validate.
+     * @return iterator of the validated objects.
+     */
+    public Iterator<Validated<T>> validate(Iterator<? extends T> objects) {
+        return new ValidatingIterator(objects);
+    }
+
+    /**
+     * Returns sequential stream validating objects of the given stream on demand. Closing the
+     * returned stream closes the given one.
+     *
+     * @param objects is a stream of the objects to validate.
+     * @return stream of the validated objects.
+     */
+    public Stream<Validated<T>> validate(final Stream<? extends T> objects) {
+        Spliterator<Validated<T>> spliterator = Spliterators.spliteratorUnknownSize(
+                this.validate(objects.iterator()), Spliterator.ORDERED | Spliterator.NONNULL);
+
+        return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+            public void run() {
+                objects.close();
+            }
+        });
+    }
+
+    /**
+     * Iterator validating the next source object on each request.
+     */
+    private final class ValidatingIterator implements Iterator<Validated<T>> {
+
+        private final Iterator<? extends T> source;
+
+        private final boolean emitInvalid;
+
+        private final Consumer<? super Validated<T>> invalidSink;
+
+        private long index;
+
+        private Validated<T> next;
+
+        ValidatingIterator(Iterator<? extends T> source) {
+            this.source = source;
+            this.invalidSink = StreamingValidator.this.invalidSink;
+            this.emitInvalid = !StreamingValidator.this.dropInvalid && this.invalidSink == null;
+        }
+
+        public boolean hasNext() {
+            while (this.next == null && this.source.hasNext()) {
+                T obj = this.source.next();
+                ValidationResult result = validator.validate(obj);
+                Validated<T> validated = new Validated<T>(this.index++, obj,
+                        result != null ? result : ValidationResult.unmodifiableEmpty());
+
+                if (validated.isValid() || this.emitInvalid)
+                    this.next = validated;
+                else if (this.invalidSink != null)
+                    this.invalidSink.accept(validated);
+            }
+            return this.next != null;
+        }
+
+        public Validated<T> next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+
+            Validated<T> validated = this.next;
+            this.next = null;
+            return validated;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+
+/**
+ * Validation check comparing temporal values with the current instant or day of a {@link Clock}.
+ * The clock is read on every check, so long-lived validators never compare against a stale
+ * instant. Supported values are {@link Date}, {@link Instant}, {@link LocalDate},
+ * {@link LocalDateTime}, {@link OffsetDateTime} and {@link ZonedDateTime}; instants and dates are
+ * compared by their epoch seconds and epoch days without creating temporary objects.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+final class TemporalCheck<T> implements IValidationCheck<T>, ITimeDependent {
+
+    /**
+     * Satisfied by values after the current instant.
+     */
+    static final int FUTURE = 1;
+
+    /**
+     * Satisfied by values before the current instant.
+     */
+    static final int PAST = -1;
+
+    /**
+     * Satisfied by values on the current day (in the clock's time zone).
+     */
+    static final int TODAY = 0;
+
+    private static final int SECONDS_PER_DAY = 86400;
+
+    private final Clock clock;
+
+    private final int expected;
+
+    private final boolean nullAllowed;
+
+    TemporalCheck(Clock clock, int expected, boolean nullAllowed) {
+        if (clock == null)
+            throw new IllegalArgumentException("Parameter 'clock' cannot be null!");
+
+        this.clock = clock;
+        this.expected = expected;
+        this.nullAllowed = nullAllowed;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the value is of an unsupported type.
+     * @see IValidationCheck#isSatisfied(java.lang.Object)
+     */
+    public boolean isSatisfied(T obj) {
+        if (obj == null)
+            return this.nullAllowed;
+
+        if (this.expected == TODAY)
+            return this.epochDay(obj) == this.today();
+
+        return Integer.signum(this.compareToNow(obj)) == this.expected;
+    }
+
+    private int compareToNow(Object obj) {
+        if (obj instanceof Date)
+            return Long.compare(((Date) obj).getTime(), this.clock.millis());
+
+        if (obj instanceof Instant) {
+            Instant instant = (Instant) obj;
+            return compareToMillis(instant.getEpochSecond(), instant.getNano(), this.clock.millis());
+        }
+
+        if (obj instanceof OffsetDateTime) {
+            OffsetDateTime dateTime = (OffsetDateTime) obj;
+            return compareToMillis(dateTime.toEpochSecond(), dateTime.getNano(),
+                    this.clock.millis());
+        }
+
+        if (obj instanceof ZonedDateTime) {
+            ZonedDateTime dateTime = (ZonedDateTime) obj;
+            return compareToMillis(dateTime.toEpochSecond(), dateTime.getNano(),
+                    this.clock.millis());
+        }
+
+        if (obj instanceof LocalDateTime) {
+            LocalDateTime dateTime = (LocalDateTime) obj;
+            long epochSecond = dateTime.toEpochSecond(this.rules().getOffset(dateTime));
+            return compareToMillis(epochSecond, dateTime.getNano(), this.clock.millis());
+        }
+
+        if (obj instanceof LocalDate)
+            return Long.compare(((LocalDate) obj).toEpochDay(), this.today());
+
+        throw unsupported(obj);
+    }
+
+    private long epochDay(Object obj) {
+        if (obj instanceof LocalDate)
+            return ((LocalDate) obj).toEpochDay();
+
+        if (obj instanceof LocalDateTime)
+            return ((LocalDateTime) obj).toLocalDate().toEpochDay();
+
+        if (obj instanceof Date)
+            return this.epochDayOfSecond(Math.floorDiv(((Date) obj).getTime(), 1000L));
+
+        if (obj instanceof Instant)
+            return this.epochDayOfSecond(((Instant) obj).getEpochSecond());
+
+        if (obj instanceof OffsetDateTime)
+            return this.epochDayOfSecond(((OffsetDateTime) obj).toEpochSecond());
+
+        if (obj instanceof ZonedDateTime)
+            return this.epochDayOfSecond(((ZonedDateTime) obj).toEpochSecond());
+
+        throw unsupported(obj);
+    }
+
+    private long today() {
+        return this.epochDayOfSecond(Math.floorDiv(this.clock.millis(), 1000L));
+    }
+
+    /**
+     * Returns epoch day of the given epoch second in the time zone of the clock.
+     */
+    private long epochDayOfSecond(long epochSecond) {
+        ZoneRules rules = this.rules();
+        int offset = rules.isFixedOffset()
+                ? rules.getOffset(Instant.EPOCH).getTotalSeconds()
+                : rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+
+        return Math.floorDiv(epochSecond + offset, SECONDS_PER_DAY);
+    }
+
+    private ZoneRules rules() {
+        return this.clock.getZone().getRules();
+    }
+
+    private static int compareToMillis(long epochSecond, int nano, long millis) {
+        long nowSecond = Math.floorDiv(millis, 1000L);
+        int cmp = Long.compare(epochSecond, nowSecond);
+        if (cmp != 0)
+            return cmp;
+
+        return Integer.compare(nano, (int) Math.floorMod(millis, 1000L) * 1000000);
+    }
+
+    private static IllegalArgumentException unsupported(Object obj) {
+        return new IllegalArgumentException("Unsupported temporal value of type '"
+                + obj.getClass() + "'.");
+    }
+}
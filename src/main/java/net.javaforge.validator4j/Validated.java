@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+/**
+ * Object tagged with its validation result, as emitted by {@link StreamingValidator}.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public final class Validated<T> {
+
+    private final long index;
+
+    private final T value;
+
+    private final ValidationResult result;
+
+    Validated(long index, T value, ValidationResult result) {
+        this.index = index;
+        this.value = value;
+        this.result = result;
+    }
+
+    /**
+     * Returns position of the object in the validated input.
+     *
+     * @return position of the object in the validated input.
+     */
+    public long getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Returns the validated object.
+     *
+     * @return the validated object.
+     */
+    public T getValue() {
+        return this.value;
+    }
+
+    /**
+     * Returns validation result of the object.
+     *
+     * @return validation result of the object.
+     */
+    public ValidationResult getResult() {
+        return this.result;
+    }
+
+    /**
+     * Returns true, if the object is valid. Otherwise returns false.
+     *
+     * @return true, if the object is valid.
+     */
+    public boolean isValid() {
+        return this.result.isEmpty();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(this.getClass().getSimpleName()).append("[index=").append(this.index)
+                .append(",value=").append(this.value).append(",valid=").append(this.isValid())
+                .append("]");
+        return sb.toString();
+    }
+}
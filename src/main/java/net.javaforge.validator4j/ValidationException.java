@@ -17,7 +17,14 @@
 package net.javaforge.validator4j;
 
 /**
- * Exception thrown on validation and containing validation result.
+ * Exception thrown on validation and containing validation result. The exception message is
+ * rendered from the validation result on demand (see {@link #getMessage()}), so creating the
+ * exception doesn't format the validation messages.
+ * <br><br>
+ * Exceptions created without writable stack trace (see
+ * {@link #ValidationException(ValidationResult, boolean)}) don't capture the stack and don't record
+ * suppressed exceptions. They are cheap to create and, if the validation result isn't modified
+ * anymore, can be created once and thrown repeatedly.
  *
  * @author Maxim Kalina
  * @version $Id$
@@ -29,11 +36,35 @@ public class ValidationException extends Exception {
     private ValidationResult validationResult;
 
     public ValidationException(ValidationResult validationResult) {
-        super("Validation exception occurs:\n" + validationResult.toString());
+        this(validationResult, true);
+    }
+
+    /**
+     * Creates exception containing the given validation result.
+     *
+     * @param validationResult   is a validation result.
+     * @param writableStackTrace is false, if the exception should neither capture the stack trace
+     *                           nor record suppressed exceptions.
+     */
+    public ValidationException(ValidationResult validationResult, boolean writableStackTrace) {
+        super(null, null, writableStackTrace, writableStackTrace);
+        if (validationResult == null)
+            throw new IllegalArgumentException("Parameter 'validationResult' cannot be null!");
+
         this.validationResult = validationResult;
     }
 
     public ValidationResult getValidationResult() {
         return this.validationResult;
     }
+
+    /**
+     * Returns the messages of the validation result rendered as of the time of the call.
+     *
+     * @return the exception message.
+     */
+    @Override
+    public String getMessage() {
+        return "Validation exception occurs:\n" + this.validationResult.toString();
+    }
 }
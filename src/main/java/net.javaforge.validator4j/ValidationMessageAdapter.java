@@ -18,6 +18,11 @@ package net.javaforge.validator4j;
 
 /**
  * Default {@link IValidationMessage} implementation.
+ * <br><br>
+ * Messages are compared by value: two messages are equal, if they have the same class, severity,
+ * key and arguments (keys and arguments are compared by their characters). The hash code is
+ * computed once and cached, so the key and arguments must not be modified after the message has
+ * been created.
  *
  * @author Maxim Kalina
  * @version $Id$
@@ -26,11 +31,13 @@ public class ValidationMessageAdapter implements IValidationMessage {
 
     private static final long serialVersionUID = 1L;
 
-    private CharSequence key;
+    private final CharSequence key;
 
-    private Severity severity;
+    private final Severity severity;
 
-    private CharSequence[] args;
+    private final CharSequence[] args;
+
+    private transient int hash;
 
     public ValidationMessageAdapter(CharSequence key, CharSequence... args) {
         this(key, Severity.ERROR, args);
@@ -69,4 +76,79 @@ public class ValidationMessageAdapter implements IValidationMessage {
         return this.args;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        if (o == null || o.getClass() != this.getClass())
+            return false;
+
+        ValidationMessageAdapter other = (ValidationMessageAdapter) o;
+        if (this.hashCode() != other.hashCode() || this.severity != other.severity
+                || !contentEquals(this.key, other.key))
+            return false;
+
+        if (this.args == other.args)
+            return true;
+
+        if (this.args == null || other.args == null || this.args.length != other.args.length)
+            return false;
+
+        for (int i = 0; i < this.args.length; i++) {
+            if (!contentEquals(this.args[i], other.args[i]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int h = this.hash;
+        if (h == 0) {
+            h = contentHash(this.key);
+            h = 31 * h + (this.severity != null ? this.severity.hashCode() : 0);
+            if (this.args != null) {
+                for (CharSequence arg : this.args)
+                    h = 31 * h + contentHash(arg);
+            }
+            this.hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Returns hash code of the characters of the given sequence, which is the hash code of the
+     * equal string.
+     */
+    private static int contentHash(CharSequence cs) {
+        if (cs == null)
+            return 0;
+
+        if (cs instanceof String)
+            return cs.hashCode();
+
+        int h = 0;
+        for (int i = 0; i < cs.length(); i++)
+            h = 31 * h + cs.charAt(i);
+        return h;
+    }
+
+    private static boolean contentEquals(CharSequence a, CharSequence b) {
+        if (a == b)
+            return true;
+
+        return a != null && b != null && a.toString().contentEquals(b);
+    }
+
 }
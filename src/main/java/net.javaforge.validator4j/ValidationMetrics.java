@@ -0,0 +1,303 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link IValidationListener} counting invocations, failures and latencies of the
+ * validation checks (per message key) and of the validated fields (per field path). All counters
+ * are {@link LongAdder}s, so concurrent validations don't contend on a single memory location.
+ * Latencies are recorded in a histogram of {@link #BUCKETS} fixed buckets: bucket <tt>i</tt>
+ * counts durations below <tt>2^i</tt> nanoseconds which didn't fit into the previous bucket.
+ * <br><br>
+ * Example:
+ * <p/>
+ * <pre>
+ * ValidationMetrics metrics = new ValidationMetrics();
+ * HierarchicalValidator&lt;Bean&gt; validator = new HierarchicalValidator&lt;Bean&gt;()
+ *         .withListener(metrics)
+ *         .addFieldValidator("id", Validator.of(IS_NOT_IN_RANGE, inRange(10, 100))
+ *                 .withListener(metrics));
+ * ...
+ * ValidationMetrics.Stats id = metrics.snapshot().getFields().get("id");
+ * </pre>
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class ValidationMetrics implements IValidationListener {
+
+    /**
+     * Number of the latency histogram buckets. The last bucket counts all durations of at least
+     * <tt>2^(BUCKETS - 2)</tt> nanoseconds.
+     */
+    public static final int BUCKETS = 40;
+
+    private final ConcurrentMap<String, Recorder> checks =
+            new ConcurrentHashMap<String, Recorder>();
+
+    private final ConcurrentMap<String, Recorder> fields =
+            new ConcurrentHashMap<String, Recorder>();
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see IValidationListener#checkCompleted(IValidationMessage, boolean, long)
+     */
+    public void checkCompleted(IValidationMessage msg, boolean satisfied, long nanos) {
+        recorder(this.checks, msg.getKey()).record(satisfied, nanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see IValidationListener#fieldCompleted(CharSequence, boolean, long)
+     */
+    public void fieldCompleted(CharSequence fieldPath, boolean valid, long nanos) {
+        recorder(this.fields, fieldPath).record(valid, nanos);
+    }
+
+    /**
+     * Returns snapshot of the metrics recorded so far. Metrics recorded concurrently may be
+     * reflected only partially.
+     *
+     * @return snapshot of the recorded metrics.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(snapshot(this.checks), snapshot(this.fields));
+    }
+
+    /**
+     * Discards all recorded metrics.
+     */
+    public void reset() {
+        this.checks.clear();
+        this.fields.clear();
+    }
+
+    /**
+     * Returns index of the histogram bucket counting the given duration.
+     */
+    static int bucketOf(long nanos) {
+        return Math.min(64 - Long.numberOfLeadingZeros(Math.max(nanos, 0L)), BUCKETS - 1);
+    }
+
+    private static Recorder recorder(ConcurrentMap<String, Recorder> recorders,
+                                     CharSequence name) {
+        String key = String.valueOf(name);
+        Recorder recorder = recorders.get(key);
+        if (recorder == null) {
+            Recorder created = new Recorder();
+            recorder = recorders.putIfAbsent(key, created);
+            if (recorder == null)
+                recorder = created;
+        }
+        return recorder;
+    }
+
+    private static Map<String, Stats> snapshot(ConcurrentMap<String, Recorder> recorders) {
+        Map<String, Stats> stats = new LinkedHashMap<String, Stats>();
+        for (Map.Entry<String, Recorder> e : recorders.entrySet())
+            stats.put(e.getKey(), e.getValue().snapshot());
+
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Mutable counters of a single check or field.
+     */
+    private static final class Recorder {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        Recorder() {
+            for (int i = 0; i < BUCKETS; i++)
+                this.buckets[i] = new LongAdder();
+        }
+
+        void record(boolean success, long nanos) {
+            this.count.increment();
+            if (!success)
+                this.failures.increment();
+
+            this.totalNanos.add(nanos);
+            this.buckets[bucketOf(nanos)].increment();
+        }
+
+        Stats snapshot() {
+            long[] buckets = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++)
+                buckets[i] = this.buckets[i].sum();
+
+            return new Stats(this.count.sum(), this.failures.sum(), this.totalNanos.sum(),
+                    buckets);
+        }
+    }
+
+    /**
+     * Snapshot of all recorded metrics.
+     */
+    public static final class Snapshot {
+
+        private final Map<String, Stats> checks;
+
+        private final Map<String, Stats> fields;
+
+        Snapshot(Map<String, Stats> checks, Map<String, Stats> fields) {
+            this.checks = checks;
+            this.fields = fields;
+        }
+
+        /**
+         * Returns statistics of the validation checks by the key of their validation message.
+         *
+         * @return unmodifiable map of the check statistics.
+         */
+        public Map<String, Stats> getChecks() {
+            return this.checks;
+        }
+
+        /**
+         * Returns statistics of the validated fields by the field path.
+         *
+         * @return unmodifiable map of the field statistics.
+         */
+        public Map<String, Stats> getFields() {
+            return this.fields;
+        }
+
+        @Override
+        public String toString() {
+            return "ValidationMetrics.Snapshot[checks=" + this.checks + ",fields="
+                    + this.fields + "]";
+        }
+    }
+
+    /**
+     * Immutable statistics of a single check or field.
+     */
+    public static final class Stats {
+
+        private final long count;
+
+        private final long failures;
+
+        private final long totalNanos;
+
+        private final long[] buckets;
+
+        Stats(long count, long failures, long totalNanos, long[] buckets) {
+            this.count = count;
+            this.failures = failures;
+            this.totalNanos = totalNanos;
+            this.buckets = buckets;
+        }
+
+        /**
+         * Returns number of invocations.
+         *
+         * @return number of invocations.
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * Returns number of failed invocations.
+         *
+         * @return number of failed invocations.
+         */
+        public long getFailures() {
+            return this.failures;
+        }
+
+        /**
+         * Returns sum of the durations of all invocations in nanoseconds.
+         *
+         * @return total duration in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        /**
+         * Returns number of invocations counted by the given histogram bucket.
+         *
+         * @param bucket is an index of the bucket (<tt>0 &lt;= bucket &lt; BUCKETS</tt>).
+         * @return number of invocations in the bucket.
+         */
+        public long getBucketCount(int bucket) {
+            return this.buckets[bucket];
+        }
+
+        /**
+         * Returns (exclusive) upper bound of the durations counted by the given histogram bucket
+         * in nanoseconds or {@link Long#MAX_VALUE} for the last bucket.
+         *
+         * @param bucket is an index of the bucket (<tt>0 &lt;= bucket &lt; BUCKETS</tt>).
+         * @return upper bound of the bucket in nanoseconds.
+         */
+        public static long getBucketUpperBound(int bucket) {
+            return bucket < BUCKETS - 1 ? 1L << bucket : Long.MAX_VALUE;
+        }
+
+        /**
+         * Returns upper bound of the histogram bucket containing the given percentile of the
+         * durations, e.g. <tt>getPercentileUpperBound(0.99)</tt>. Returns 0, if nothing was
+         * recorded.
+         *
+         * @param percentile is a percentile between 0 and 1.
+         * @return upper bound of the percentile in nanoseconds.
+         */
+        public long getPercentileUpperBound(double percentile) {
+            long total = 0;
+            for (long bucket : this.buckets)
+                total += bucket;
+
+            if (total == 0)
+                return 0;
+
+            long threshold = (long) Math.ceil(total * percentile);
+            long cumulative = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                cumulative += this.buckets[i];
+                if (cumulative >= threshold && cumulative > 0)
+                    return getBucketUpperBound(i);
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats[count=" + this.count + ",failures=" + this.failures + ",totalNanos="
+                    + this.totalNanos + ",buckets=" + Arrays.toString(this.buckets) + "]";
+        }
+    }
+}
@@ -17,18 +17,48 @@
 package net.javaforge.validator4j;
 
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
  * This class is a kind of container for validation messages.
+ * <br><br>
+ * The messages are stored in insertion order in an array, duplicates (according to
+ * {@link Object#equals(Object)}) are ignored. The number of messages per severity is tracked on
+ * insertion. Severity and prefix queries use indexes built on the first query: a bitmap of the
+ * message positions per severity and an index of the message keys sorted for binary search by
+ * prefix. Modifiable validation results are not thread-safe. Unmodifiable ones (see
+ * {@link Builder#build()}) may be queried by several threads, the indexes are published through
+ * volatile fields once they are fully built.
+ * <br><br>
+ * Results combined from many partial results are best assembled by a {@link Builder}, which
+ * freezes the collected messages into an unmodifiable result without copying them.
+ * <br><br>
+ * Validation results have a compact binary form (see {@link #writeTo(DataOutput)}), Java
+ * serialization uses it as well.
  *
  * @author Maxim Kalina
  * @version $Id$
  */
 public class ValidationResult implements Serializable {
 
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
+
+    /**
+     * Size up to which duplicates are looked up by a linear scan instead of a hash set.
+     */
+    private static final int LINEAR_LOOKUP_LIMIT = 8;
+
+    private static final IValidationMessage.Severity[] SEVERITIES =
+            IValidationMessage.Severity.values();
+
+    private static final IValidationMessage[] NO_MESSAGES = new IValidationMessage[0];
 
     /**
      * Returns new empty validation result.
@@ -39,22 +69,71 @@ public class ValidationResult implements Serializable {
         return new ValidationResult();
     }
 
-    private Collection<IValidationMessage> messages;
+    private static final ValidationResult unmodifiableEmpty = new ValidationResult(false);
+
+    /**
+     * Returns shared, unmodifiable (!) empty validation result. Validators return this instance
+     * if the validated object passes all checks. Any attempt to add messages to it throws
+     * {@link UnsupportedOperationException}; use {@link #ValidationResult(ValidationResult)} to
+     * obtain a modifiable copy.
+     *
+     * @return shared, unmodifiable empty validation result.
+     */
+    public static ValidationResult unmodifiableEmpty() {
+        return unmodifiableEmpty;
+    }
+
+    /**
+     * Returns new builder of an unmodifiable validation result.
+     *
+     * @return new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private boolean modifiable;
+
+    private IValidationMessage[] messages;
+
+    private int size;
+
+    /**
+     * Number of messages per severity, the last slot counts messages without severity.
+     */
+    private final int[] severityCounts = new int[SEVERITIES.length + 1];
+
+    private transient Set<IValidationMessage> lookup;
+
+    private transient volatile BitSet[] severityIndex;
+
+    private transient volatile KeyIndex keyIndex;
 
     public ValidationResult() {
-        this(new LinkedHashSet<IValidationMessage>());
+        this(true);
     }
 
     public ValidationResult(ValidationResult validationResult) {
-        this.messages = new LinkedHashSet<IValidationMessage>(validationResult.messages);
+        this(true);
+        this.messages = Arrays.copyOf(validationResult.messages, validationResult.size);
+        this.size = validationResult.size;
+        System.arraycopy(validationResult.severityCounts, 0, this.severityCounts, 0,
+                this.severityCounts.length);
     }
 
     public ValidationResult(IValidationMessage... messages) {
-        this.messages = new LinkedHashSet<IValidationMessage>(Arrays.asList(messages));
+        this(true);
+        this.add(messages);
     }
 
     public ValidationResult(Collection<IValidationMessage> messages) {
-        this.messages = new LinkedHashSet<IValidationMessage>(messages);
+        this(true);
+        this.add(messages);
+    }
+
+    private ValidationResult(boolean modifiable) {
+        this.modifiable = modifiable;
+        this.messages = NO_MESSAGES;
     }
 
     /**
@@ -65,7 +144,8 @@ public class ValidationResult implements Serializable {
      */
     public ValidationResult add(IValidationMessage... messages) {
         if (messages != null) {
-            Collections.addAll(this.messages, messages);
+            for (IValidationMessage msg : messages)
+                this.addMessage(msg);
         }
         return this;
     }
@@ -77,9 +157,10 @@ public class ValidationResult implements Serializable {
      * @return this validation result
      */
     public ValidationResult add(Collection<IValidationMessage> messages) {
-        if (messages != null)
-            return add(messages.toArray(new IValidationMessage[messages.size()]));
-
+        if (messages != null) {
+            for (IValidationMessage msg : messages)
+                this.addMessage(msg);
+        }
         return this;
     }
 
@@ -90,39 +171,25 @@ public class ValidationResult implements Serializable {
      * @return this validation result
      */
     public ValidationResult add(ValidationResult result) {
-        if (result != null && result.isNotEmpty())
-            return add(result.getMessages());
-
+        if (result != null) {
+            for (int i = 0; i < result.size; i++)
+                this.addMessage(result.messages[i]);
+        }
         return this;
     }
 
     /**
-     * Adds validation messages by prepending all message keys with the given prefix.
+     * Adds validation messages by prepending all message keys with the given prefix. Messages
+     * that are already prefixed are not wrapped again, their prefixes are combined instead.
      *
      * @param prefix   is a prefix to use
      * @param messages is an array of validation messages to add
      * @return this validation result
      */
-    public ValidationResult addWithPrefix(final CharSequence prefix,
-                                          final IValidationMessage... messages) {
+    public ValidationResult addWithPrefix(CharSequence prefix, IValidationMessage... messages) {
         if (messages != null) {
-            for (final IValidationMessage msg : messages) {
-                this.messages.add(new IValidationMessage() {
-                    private static final long serialVersionUID = 1L;
-
-                    public CharSequence getKey() {
-                        return new StringBuffer().append(prefix).append(".").append(msg.getKey());
-                    }
-
-                    public Severity getSeverity() {
-                        return msg.getSeverity();
-                    }
-
-                    public CharSequence[] getArgs() {
-                        return msg.getArgs();
-                    }
-                });
-            }
+            for (IValidationMessage msg : messages)
+                this.addMessage(PrefixedValidationMessage.of(prefix, msg));
         }
         return this;
     }
@@ -136,9 +203,10 @@ public class ValidationResult implements Serializable {
      */
     public ValidationResult addWithPrefix(CharSequence prefix,
                                           Collection<IValidationMessage> messages) {
-        if (messages != null)
-            return addWithPrefix(prefix, messages.toArray(new IValidationMessage[messages.size()]));
-
+        if (messages != null) {
+            for (IValidationMessage msg : messages)
+                this.addMessage(PrefixedValidationMessage.of(prefix, msg));
+        }
         return this;
     }
 
@@ -150,9 +218,10 @@ public class ValidationResult implements Serializable {
      * @return this validation result
      */
     public ValidationResult addWithPrefix(CharSequence prefix, ValidationResult result) {
-        if (result != null && result.isNotEmpty())
-            return addWithPrefix(prefix, result.getMessages());
-
+        if (result != null) {
+            for (int i = 0; i < result.size; i++)
+                this.addMessage(PrefixedValidationMessage.of(prefix, result.messages[i]));
+        }
         return this;
     }
 
@@ -164,7 +233,7 @@ public class ValidationResult implements Serializable {
      *         false.
      */
     public boolean isEmpty() {
-        return this.messages.isEmpty();
+        return this.size == 0;
     }
 
     /**
@@ -178,13 +247,33 @@ public class ValidationResult implements Serializable {
         return !this.isEmpty();
     }
 
+    /**
+     * Returns true, if messages can be added to this validation result. Results returned by
+     * {@link Builder#build()} and {@link #unmodifiableEmpty()} are unmodifiable.
+     *
+     * @return true, if messages can be added to this validation result.
+     */
+    public boolean isModifiable() {
+        return this.modifiable;
+    }
+
     /**
      * Returns number of validation messages in this validation result.
      *
      * @return number of validation messages in this validation result.
      */
     public int size() {
-        return this.messages.size();
+        return this.size;
+    }
+
+    /**
+     * Returns number of validation messages with the given severity.
+     *
+     * @param severity is a severity to count.
+     * @return number of validation messages with the given severity.
+     */
+    public int getMessageCountBySeverity(IValidationMessage.Severity severity) {
+        return this.severityCounts[slot(severity)];
     }
 
     /**
@@ -194,7 +283,7 @@ public class ValidationResult implements Serializable {
      * @return the (unmodifiable) collection of validation messages
      */
     public Collection<IValidationMessage> getMessages() {
-        return Collections.unmodifiableCollection(this.messages);
+        return new MessageList();
     }
 
     /**
@@ -204,11 +293,29 @@ public class ValidationResult implements Serializable {
      * @return filtered unmodifiable collection of validation messages
      */
     public Collection<IValidationMessage> getMessagesBySeverity(final IValidationMessage.Severity severity) {
-        return this.getMessagesByFilter(new IValidationMessageFilter() {
-            public boolean accept(IValidationMessage msg) {
-                return severity == msg.getSeverity();
+        int slot = slot(severity);
+        int count = this.severityCounts[slot];
+        if (count == 0)
+            return Collections.emptySet();
+
+        // a snapshot, like the filtered subsets, even if all messages have the severity
+        IValidationMessage[] filtered;
+        if (count == this.size) {
+            filtered = Arrays.copyOf(this.messages, this.size);
+        } else {
+            BitSet[] index = this.severityIndex;
+            if (index == null) {
+                index = this.buildSeverityIndex();
+                this.severityIndex = index;
             }
-        });
+
+            BitSet positions = index[slot];
+            filtered = new IValidationMessage[count];
+            for (int i = positions.nextSetBit(0), j = 0; i >= 0; i = positions.nextSetBit(i + 1))
+                filtered[j++] = this.messages[i];
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(filtered));
     }
 
     /**
@@ -218,12 +325,24 @@ public class ValidationResult implements Serializable {
      * @return filtered unmodifiable collection of validation messages
      */
     public Collection<IValidationMessage> getMessagesByPrefix(final CharSequence prefix) {
-        return this.getMessagesByFilter(new IValidationMessageFilter() {
-            public boolean accept(IValidationMessage msg) {
-                return msg != null
-                        && String.valueOf(msg.getKey()).startsWith(String.valueOf(prefix));
-            }
-        });
+        if (isEmpty())
+            return Collections.emptySet();
+
+        KeyIndex index = this.keyIndex;
+        if (index == null) {
+            index = new KeyIndex(this.messages, this.size);
+            this.keyIndex = index;
+        }
+
+        int[] positions = index.positionsByPrefix(String.valueOf(prefix));
+        if (positions.length == 0)
+            return Collections.emptySet();
+
+        IValidationMessage[] filtered = new IValidationMessage[positions.length];
+        for (int i = 0; i < positions.length; i++)
+            filtered[i] = this.messages[positions[i]];
+
+        return Collections.unmodifiableList(Arrays.asList(filtered));
     }
 
     /**
@@ -238,9 +357,9 @@ public class ValidationResult implements Serializable {
             return Collections.emptySet();
 
         Collection<IValidationMessage> filtered = new ArrayList<IValidationMessage>();
-        for (IValidationMessage msg : this.getMessages()) {
-            if (filter.accept(msg))
-                filtered.add(msg);
+        for (int i = 0; i < this.size; i++) {
+            if (filter.accept(this.messages[i]))
+                filtered.add(this.messages[i]);
         }
 
         return Collections.unmodifiableCollection(filtered);
@@ -255,6 +374,71 @@ public class ValidationResult implements Serializable {
         return this.getMessages().iterator();
     }
 
+    /**
+     * Writes this validation result in the compact binary form: all distinct keys, prefixes and
+     * arguments are written once into a dictionary referenced by the messages, lengths and
+     * references are written as varints and severities as single bytes.
+     * {@link PredefinedMessages} and prefixed messages are restored as such, other messages are
+     * read back as {@link ValidationMessageAdapter}s.
+     *
+     * @param out is a data output to write to.
+     * @throws IOException if writing to the output fails.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        ValidationResultCodec.write(this, out);
+    }
+
+    /**
+     * Writes this validation result in the compact binary form (see {@link #writeTo(DataOutput)})
+     * at the current position of the buffer.
+     *
+     * @param buffer is a buffer to write to.
+     * @throws java.nio.BufferOverflowException if the buffer has not enough space.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        ValidationResultCodec.write(this, buffer);
+    }
+
+    /**
+     * Reads validation result written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in is a data input to read from.
+     * @return validation result.
+     * @throws IOException if reading from the input fails or the data is not a valid encoded
+     *                     validation result.
+     */
+    public static ValidationResult readFrom(DataInput in) throws IOException {
+        return ValidationResultCodec.read(in);
+    }
+
+    /**
+     * Reads validation result written by {@link #writeTo(ByteBuffer)} from the current position of
+     * the buffer.
+     *
+     * @param buffer is a buffer to read from.
+     * @return validation result.
+     * @throws IllegalArgumentException if the buffer doesn't contain a valid encoded validation
+     *                                  result or the encoded result is truncated.
+     */
+    public static ValidationResult readFrom(ByteBuffer buffer) {
+        return ValidationResultCodec.read(buffer);
+    }
+
+    private Object writeReplace() {
+        return new ValidationResultCodec.SerializedForm(this);
+    }
+
+    /**
+     * Rejects streams bypassing the serialized form. Subclasses are still serialized field by
+     * field, as the private <tt>writeReplace</tt> doesn't apply to them.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        if (this.getClass() == ValidationResult.class)
+            throw new InvalidObjectException("Serialized form required.");
+
+        in.defaultReadObject();
+    }
+
     /**
      * Adds validation message <tt>msg</tt> on failed validation check.
      *
@@ -298,6 +482,18 @@ public class ValidationResult implements Serializable {
         return new ValidationException(this);
     }
 
+    /**
+     * Converts this validation result to ValidationException. Without writable stack trace the
+     * exception is cheap to create, which suits validation used as control flow for rejected
+     * input (see {@link ValidationException#ValidationException(ValidationResult, boolean)}).
+     *
+     * @param writableStackTrace is false, if the exception shouldn't capture the stack trace.
+     * @return this validation result as ValidationException.
+     */
+    public ValidationException toValidationException(boolean writableStackTrace) {
+        return new ValidationException(this, writableStackTrace);
+    }
+
     /**
      * Throws validation exception containing this validation result, if it contains at least one
      * message. Otherwise returns the validation result itself.
@@ -312,6 +508,22 @@ public class ValidationResult implements Serializable {
         return this;
     }
 
+    /**
+     * Throws validation exception containing this validation result, if it contains at least one
+     * message. Otherwise returns the validation result itself.
+     *
+     * @param writableStackTrace is false, if the exception shouldn't capture the stack trace.
+     * @return this validation result if it is empty
+     * @throws ValidationException will be thrown if current validation result is not empty
+     * @see #toValidationException(boolean)
+     */
+    public ValidationResult throwIfNotEmpty(boolean writableStackTrace) throws ValidationException {
+        if (this.isNotEmpty())
+            throw this.toValidationException(writableStackTrace);
+
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -323,7 +535,8 @@ public class ValidationResult implements Serializable {
         sb.append(this.getClass().getSimpleName()).append("[");
         if (this.messages != null) {
             sb.append("\n");
-            for (IValidationMessage msg : messages) {
+            for (int i = 0; i < this.size; i++) {
+                IValidationMessage msg = this.messages[i];
                 sb.append("\tkey=").append(msg.getKey()).append(",severity=")
                         .append(msg.getSeverity()).append(",args={");
 
@@ -337,6 +550,275 @@ public class ValidationResult implements Serializable {
         return sb.toString();
     }
 
+    /**
+     * Appends the given message, if it's not null and not contained yet.
+     */
+    private void addMessage(IValidationMessage msg) {
+        if (!this.modifiable)
+            throw new UnsupportedOperationException();
+
+        if (msg == null || this.contains(msg))
+            return;
+
+        if (this.size == this.messages.length)
+            this.messages = Arrays.copyOf(this.messages, Math.max(4, this.size + (this.size >> 1)));
+
+        int slot = slot(msg.getSeverity());
+        BitSet[] index = this.severityIndex;
+        if (index != null)
+            index[slot].set(this.size);
+
+        if (this.lookup != null)
+            this.lookup.add(msg);
+
+        if (this.keyIndex != null)
+            this.keyIndex = null;
+        this.severityCounts[slot]++;
+        this.messages[this.size++] = msg;
+    }
+
+    private boolean contains(IValidationMessage msg) {
+        if (this.lookup == null) {
+            if (this.size <= LINEAR_LOOKUP_LIMIT) {
+                for (int i = 0; i < this.size; i++) {
+                    if (msg.equals(this.messages[i]))
+                        return true;
+                }
+                return false;
+            }
+
+            this.lookup = new HashSet<IValidationMessage>(this.size * 2);
+            for (int i = 0; i < this.size; i++)
+                this.lookup.add(this.messages[i]);
+        }
+        return this.lookup.contains(msg);
+    }
+
+    private BitSet[] buildSeverityIndex() {
+        BitSet[] index = new BitSet[this.severityCounts.length];
+        for (int i = 0; i < index.length; i++)
+            index[i] = new BitSet();
+
+        for (int i = 0; i < this.size; i++)
+            index[slot(this.messages[i].getSeverity())].set(i);
+
+        return index;
+    }
+
+    private static int slot(IValidationMessage.Severity severity) {
+        return severity != null ? severity.ordinal() : SEVERITIES.length;
+    }
+
+    /**
+     * Builder of an unmodifiable validation result. Messages and results are appended to a
+     * growable array without intermediate copies, {@link #build()} hands the array over to the
+     * built result without copying it. Duplicate messages are ignored, as in a validation result.
+     *
+     * @author Maxim Kalina
+     * @version $Id$
+     */
+    public static final class Builder {
+
+        private ValidationResult result;
+
+        private int appended;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds validation message.
+         *
+         * @param msg is a message to add.
+         * @return this builder.
+         */
+        public Builder add(IValidationMessage msg) {
+            if (msg != null) {
+                this.result().addMessage(msg);
+                this.appended++;
+            }
+            return this;
+        }
+
+        /**
+         * Adds all messages of the given validation result.
+         *
+         * @param result is a validation result to add.
+         * @return this builder.
+         */
+        public Builder add(ValidationResult result) {
+            if (result != null && result.size > 0) {
+                this.result().add(result);
+                this.appended += result.size;
+            }
+            return this;
+        }
+
+        /**
+         * Adds validation message by prepending its key with the given prefix.
+         *
+         * @param prefix is a prefix to use.
+         * @param msg    is a message to add.
+         * @return this builder.
+         */
+        public Builder addWithPrefix(CharSequence prefix, IValidationMessage msg) {
+            if (msg != null) {
+                this.result().addMessage(PrefixedValidationMessage.of(prefix, msg));
+                this.appended++;
+            }
+            return this;
+        }
+
+        /**
+         * Adds all messages of the given validation result by prepending their keys with the
+         * given prefix.
+         *
+         * @param prefix is a prefix to use.
+         * @param result is a validation result to add.
+         * @return this builder.
+         */
+        public Builder addWithPrefix(CharSequence prefix, ValidationResult result) {
+            if (result != null && result.size > 0) {
+                this.result().addWithPrefix(prefix, result);
+                this.appended += result.size;
+            }
+            return this;
+        }
+
+        /**
+         * Returns number of collected messages.
+         *
+         * @return number of collected messages.
+         */
+        public int size() {
+            return this.result != null ? this.result.size : 0;
+        }
+
+        /**
+         * Returns true, if no message has been collected.
+         *
+         * @return true, if no message has been collected.
+         */
+        public boolean isEmpty() {
+            return this.size() == 0;
+        }
+
+        /**
+         * Returns unmodifiable validation result containing the collected messages and resets
+         * this builder. If no message has been collected, {@link #unmodifiableEmpty()} is
+         * returned.
+         *
+         * @return unmodifiable validation result.
+         */
+        public ValidationResult build() {
+            ValidationResult built = this.buildModifiable();
+            if (built != unmodifiableEmpty)
+                built.modifiable = false;
+
+            return built;
+        }
+
+        /**
+         * Same as {@link #build()}, but the returned not empty result stays modifiable, as the
+         * results of {@link Validator#validate}. The messages are handed over without copying
+         * them as well.
+         */
+        ValidationResult buildModifiable() {
+            ValidationResult built = this.result;
+            this.result = null;
+            this.appended = 0;
+            return built != null && built.size > 0 ? built : unmodifiableEmpty;
+        }
+
+        /**
+         * Returns number of messages passed to this builder, including the ignored duplicates.
+         * Used to detect whether a validation step added any messages.
+         */
+        int appended() {
+            return this.appended;
+        }
+
+        private ValidationResult result() {
+            if (this.result == null)
+                this.result = new ValidationResult();
+
+            return this.result;
+        }
+    }
+
+    /**
+     * Live, unmodifiable view of the messages.
+     */
+    private final class MessageList extends AbstractList<IValidationMessage> {
+
+        @Override
+        public IValidationMessage get(int index) {
+            if (index >= size)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+            return messages[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Message keys sorted lexicographically together with the positions of their messages, so
+     * the keys starting with a prefix form a range found by binary search.
+     */
+    private static final class KeyIndex {
+
+        private final String[] keys;
+
+        private final int[] positions;
+
+        KeyIndex(IValidationMessage[] messages, int size) {
+            final String[] keys = new String[size];
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = String.valueOf(messages[i].getKey());
+                order[i] = i;
+            }
+
+            Arrays.sort(order, new Comparator<Integer>() {
+                public int compare(Integer a, Integer b) {
+                    return keys[a].compareTo(keys[b]);
+                }
+            });
+
+            this.keys = new String[size];
+            this.positions = new int[size];
+            for (int i = 0; i < size; i++) {
+                this.keys[i] = keys[order[i]];
+                this.positions[i] = order[i];
+            }
+        }
+
+        /**
+         * Returns the positions of the messages whose key starts with the prefix in insertion
+         * order.
+         */
+        int[] positionsByPrefix(String prefix) {
+            int from = Arrays.binarySearch(this.keys, prefix);
+            if (from < 0)
+                from = -from - 1;
+            else
+                while (from > 0 && this.keys[from - 1].equals(prefix))
+                    from--;
+
+            int to = from;
+            while (to < this.keys.length && this.keys[to].startsWith(prefix))
+                to++;
+
+            int[] result = Arrays.copyOfRange(this.positions, from, to);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
     /**
      * Interface used to accept or filter validation messages.
      *
@@ -0,0 +1,434 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of {@link ValidationResult}. The encoded result consists of
+ * <ul>
+ * <li>the format version and a flags byte (modifiable or not),</li>
+ * <li>a dictionary of all distinct strings (keys, prefixes, arguments), each written once as
+ * varint length followed by its UTF-8 bytes,</li>
+ * <li>the messages, each one a tag byte followed by varint references into the dictionary and,
+ * for generic messages, the severity as a single byte.</li>
+ * </ul>
+ * {@link PredefinedMessages} are written by name and read back as the same enum constants,
+ * prefixed messages as their prefix and the original message. Other messages are read back as
+ * {@link ValidationMessageAdapter}s with the same key, severity and arguments.
+ * <br><br>
+ * Counts and lengths read from the input are checked against the remaining input, where it's
+ * known (buffers). Otherwise arrays are allocated for at most {@link #MAX_PREALLOCATION}
+ * elements in advance and grow while they are read, so corrupt input fails as truncated instead
+ * of allocating huge arrays.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+final class ValidationResultCodec {
+
+    private static final int VERSION = 1;
+
+    private static final int FLAG_MODIFIABLE = 1;
+
+    private static final int MAX_PREALLOCATION = 4096;
+
+    private static final int TAG_MESSAGE = 0;
+
+    private static final int TAG_PREDEFINED = 1;
+
+    private static final int TAG_PREFIXED = 2;
+
+    private static final IValidationMessage.Severity[] SEVERITIES =
+            IValidationMessage.Severity.values();
+
+    private static final PredefinedMessages[] PREDEFINED = PredefinedMessages.values();
+
+    private ValidationResultCodec() {
+    }
+
+    /**
+     * Writes the given result to the data output.
+     */
+    static void write(ValidationResult result, final DataOutput out) throws IOException {
+        write(result, new Sink() {
+            public void write(int b) throws IOException {
+                out.write(b);
+            }
+
+            public void write(byte[] b) throws IOException {
+                out.write(b);
+            }
+        });
+    }
+
+    /**
+     * Writes the given result to the buffer.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has not enough space.
+     */
+    static void write(ValidationResult result, final ByteBuffer buffer) {
+        try {
+            write(result, new Sink() {
+                public void write(int b) {
+                    buffer.put((byte) b);
+                }
+
+                public void write(byte[] b) {
+                    buffer.put(b);
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads result from the data input.
+     */
+    static ValidationResult read(final DataInput in) throws IOException {
+        return read(new Source() {
+            public int read() throws IOException {
+                return in.readUnsignedByte();
+            }
+
+            public void read(byte[] b, int off, int len) throws IOException {
+                in.readFully(b, off, len);
+            }
+
+            public int remaining() {
+                return Integer.MAX_VALUE;
+            }
+        });
+    }
+
+    /**
+     * Reads result from the buffer.
+     *
+     * @throws IllegalArgumentException if the buffer doesn't contain a valid encoded result or
+     *                                  the encoded result is truncated.
+     */
+    static ValidationResult read(final ByteBuffer buffer) {
+        try {
+            return read(new Source() {
+                public int read() throws IOException {
+                    if (!buffer.hasRemaining())
+                        throw new EOFException("Truncated encoded validation result.");
+
+                    return buffer.get() & 0xFF;
+                }
+
+                public void read(byte[] b, int off, int len) throws IOException {
+                    if (buffer.remaining() < len)
+                        throw new EOFException("Truncated encoded validation result.");
+
+                    buffer.get(b, off, len);
+                }
+
+                public int remaining() {
+                    return buffer.remaining();
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid encoded validation result.", e);
+        }
+    }
+
+    private static void write(ValidationResult result, Sink out) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<String, Integer>();
+        List<String> strings = new ArrayList<String>();
+        for (Iterator<IValidationMessage> it = result.iterator(); it.hasNext(); )
+            collect(it.next(), dictionary, strings);
+
+        out.write(VERSION);
+        out.write(result.isModifiable() ? FLAG_MODIFIABLE : 0);
+
+        writeVarInt(out, strings.size());
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        writeVarInt(out, result.size());
+        for (Iterator<IValidationMessage> it = result.iterator(); it.hasNext(); )
+            writeMessage(out, it.next(), dictionary);
+    }
+
+    private static ValidationResult read(Source in) throws IOException {
+        int version = in.read();
+        if (version != VERSION)
+            throw new IOException("Unsupported validation result format version " + version + ".");
+
+        boolean modifiable = (in.read() & FLAG_MODIFIABLE) != 0;
+
+        int count = readCount(in);
+        String[] strings = new String[Math.min(count, MAX_PREALLOCATION)];
+        for (int i = 0; i < count; i++) {
+            strings = ensureCapacity(strings, i, count);
+            strings[i] = new String(readBytes(in, readCount(in)), StandardCharsets.UTF_8);
+        }
+
+        int size = readCount(in);
+        if (modifiable) {
+            ValidationResult result = new ValidationResult();
+            for (int i = 0; i < size; i++)
+                result.add(readMessage(in, strings));
+            return result;
+        }
+
+        ValidationResult.Builder builder = ValidationResult.builder();
+        for (int i = 0; i < size; i++)
+            builder.add(readMessage(in, strings));
+        return builder.build();
+    }
+
+    private static void collect(IValidationMessage msg, Map<String, Integer> dictionary,
+                                List<String> strings) {
+        if (msg instanceof PredefinedMessages) {
+            collect(((PredefinedMessages) msg).name(), dictionary, strings);
+        } else if (msg instanceof PrefixedValidationMessage) {
+            collect(((PrefixedValidationMessage) msg).getPrefix(), dictionary, strings);
+            collect(((PrefixedValidationMessage) msg).getMessage(), dictionary, strings);
+        } else {
+            collect(msg.getKey(), dictionary, strings);
+            CharSequence[] args = msg.getArgs();
+            if (args != null) {
+                for (CharSequence arg : args)
+                    collect(arg, dictionary, strings);
+            }
+        }
+    }
+
+    private static void collect(CharSequence cs, Map<String, Integer> dictionary,
+                                List<String> strings) {
+        if (cs == null)
+            return;
+
+        String s = cs.toString();
+        if (!dictionary.containsKey(s)) {
+            dictionary.put(s, strings.size());
+            strings.add(s);
+        }
+    }
+
+    private static void writeMessage(Sink out, IValidationMessage msg,
+                                     Map<String, Integer> dictionary) throws IOException {
+        if (msg instanceof PredefinedMessages) {
+            out.write(TAG_PREDEFINED);
+            writeString(out, ((PredefinedMessages) msg).name(), dictionary);
+        } else if (msg instanceof PrefixedValidationMessage) {
+            out.write(TAG_PREFIXED);
+            writeString(out, ((PrefixedValidationMessage) msg).getPrefix(), dictionary);
+            writeMessage(out, ((PrefixedValidationMessage) msg).getMessage(), dictionary);
+        } else {
+            out.write(TAG_MESSAGE);
+            writeString(out, msg.getKey(), dictionary);
+
+            IValidationMessage.Severity severity = msg.getSeverity();
+            out.write(severity != null ? severity.ordinal() + 1 : 0);
+
+            CharSequence[] args = msg.getArgs();
+            writeVarInt(out, args != null ? args.length + 1 : 0);
+            if (args != null) {
+                for (CharSequence arg : args)
+                    writeString(out, arg, dictionary);
+            }
+        }
+    }
+
+    private static IValidationMessage readMessage(Source in, String[] strings)
+            throws IOException {
+        int tag = in.read();
+        switch (tag) {
+            case TAG_PREDEFINED: {
+                String name = readString(in, strings);
+                for (PredefinedMessages predefined : PREDEFINED) {
+                    if (predefined.name().equals(name))
+                        return predefined;
+                }
+                throw new IOException("Unknown predefined message '" + name + "'.");
+            }
+            case TAG_PREFIXED: {
+                String prefix = readString(in, strings);
+                // decoded prefixes are shared through the dictionary, they aren't interned, so
+                // decoding doesn't evict the prefixes of the validators from the bounded caches
+                return PrefixedValidationMessage.of(PrefixedValidationMessage.uninterned(prefix),
+                        readMessage(in, strings));
+            }
+            case TAG_MESSAGE: {
+                String key = readString(in, strings);
+
+                int severity = in.read();
+                if (severity > SEVERITIES.length)
+                    throw new IOException("Unknown severity " + severity + ".");
+
+                int argCount = readVarInt(in) - 1;
+                if (argCount > in.remaining())
+                    throw new IOException("Invalid argument count " + argCount + ".");
+
+                CharSequence[] args = argCount >= 0
+                        ? new CharSequence[Math.min(argCount, MAX_PREALLOCATION)] : null;
+                for (int i = 0; i < argCount; i++) {
+                    args = ensureCapacity(args, i, argCount);
+                    args[i] = readString(in, strings);
+                }
+
+                return new ValidationMessageAdapter(key,
+                        severity > 0 ? SEVERITIES[severity - 1] : null, args);
+            }
+            default:
+                throw new IOException("Unknown message tag " + tag + ".");
+        }
+    }
+
+    /**
+     * Writes reference to the string in the dictionary, 0 stands for null.
+     */
+    private static void writeString(Sink out, CharSequence cs, Map<String, Integer> dictionary)
+            throws IOException {
+        writeVarInt(out, cs != null ? dictionary.get(cs.toString()) + 1 : 0);
+    }
+
+    private static String readString(Source in, String[] strings) throws IOException {
+        int index = readVarInt(in);
+        if (index > strings.length)
+            throw new IOException("Invalid string reference " + index + ".");
+
+        return index > 0 ? strings[index - 1] : null;
+    }
+
+    /**
+     * Reads count of elements (or bytes) following in the input, each one taking at least one
+     * byte.
+     */
+    private static int readCount(Source in) throws IOException {
+        int count = readVarInt(in);
+        if (count > in.remaining())
+            throw new IOException("Invalid count " + count + ", only " + in.remaining()
+                    + " bytes left.");
+
+        return count;
+    }
+
+    private static byte[] readBytes(Source in, int length) throws IOException {
+        byte[] bytes = new byte[Math.min(length, MAX_PREALLOCATION)];
+        int read = 0;
+        while (true) {
+            in.read(bytes, read, bytes.length - read);
+            read = bytes.length;
+            if (read == length)
+                return bytes;
+
+            bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * read));
+        }
+    }
+
+    /**
+     * Returns the given array or its copy grown up to <tt>count</tt> elements, if there is no
+     * room for an element at <tt>index</tt>.
+     */
+    private static <E> E[] ensureCapacity(E[] array, int index, int count) {
+        return index < array.length ? array
+                : Arrays.copyOf(array, (int) Math.min(count, 2L * array.length));
+    }
+
+    private static void writeVarInt(Sink out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(Source in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0)
+                    throw new IOException("Invalid varint.");
+                return value;
+            }
+        }
+        throw new IOException("Invalid varint.");
+    }
+
+    private interface Sink {
+
+        void write(int b) throws IOException;
+
+        void write(byte[] b) throws IOException;
+    }
+
+    private interface Source {
+
+        int read() throws IOException;
+
+        void read(byte[] b, int off, int len) throws IOException;
+
+        /**
+         * Returns number of bytes left in the input or {@link Integer#MAX_VALUE}, if unknown.
+         */
+        int remaining();
+    }
+
+    /**
+     * Serialized form of {@link ValidationResult}, written in the compact binary form.
+     */
+    static final class SerializedForm implements Externalizable {
+
+        private static final long serialVersionUID = 1L;
+
+        private ValidationResult result;
+
+        public SerializedForm() {
+        }
+
+        SerializedForm(ValidationResult result) {
+            this.result = result;
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            write(this.result, out);
+        }
+
+        public void readExternal(ObjectInput in) throws IOException {
+            this.result = read(in);
+        }
+
+        private Object readResolve() {
+            return this.result.isEmpty() && !this.result.isModifiable()
+                    ? ValidationResult.unmodifiableEmpty() : this.result;
+        }
+    }
+}
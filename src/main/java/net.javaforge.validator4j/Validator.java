@@ -16,8 +16,10 @@
 
 package net.javaforge.validator4j;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * Base validation implementation.
@@ -27,12 +29,34 @@ import java.util.Map;
  */
 public class Validator<T> implements IValidator<T> {
 
-    private Map<IValidationCheck<T>, IValidationMessage> checksContainer;
+    private IValidationCheck<T>[] checks = newChecks(0);
+
+    /**
+     * Validation messages of the {@link #checks} (same index).
+     */
+    private IValidationMessage[] messages = new IValidationMessage[0];
+
+    /**
+     * Commutative groups of the {@link #checks} (same index) or -1 for non-commutative checks.
+     */
+    private int[] groups = new int[0];
+
+    private int groupCount;
+
+    private boolean adaptiveOrdering;
 
     private boolean cancelOnFirstFailedCheck = true;
 
     private CharSequence prefix;
 
+    private IValidationListener listener;
+
+    /**
+     * Snapshot of the current configuration or null, if the configuration changed since the last
+     * validation.
+     */
+    private volatile Built<T> built;
+
     public Validator() {
     }
 
@@ -48,27 +72,158 @@ public class Validator<T> implements IValidator<T> {
      */
     public Validator<T> withPrefix(CharSequence prefix) {
         this.prefix = prefix;
+        this.built = null;
         return this;
     }
 
+    /**
+     * Installs listener notified about every executed check of this validator.
+     *
+     * @param listener is a listener to notify or null, if no listener should be notified.
+     * @return this validator.
+     */
+    public Validator<T> withListener(IValidationListener listener) {
+        this.listener = listener;
+        this.built = null;
+        return this;
+    }
+
+    /**
+     * Enables adaptive ordering of commutative checks (see {@link #addCommutativeChecks}): the
+     * built validator samples cost and failure rate of these checks at runtime and executes the
+     * cheap and often failing ones first. Other checks are always executed in the order they were
+     * added.
+     *
+     * @return this validator.
+     */
+    public Validator<T> withAdaptiveOrdering() {
+        this.adaptiveOrdering = true;
+        this.built = null;
+        return this;
+    }
+
+    /**
+     * Freezes the current configuration of this validator into an immutable validator. The
+     * returned validator stores its checks in arrays and has only final fields, so it can be
+     * shared by any number of threads, even if it is published without synchronization. Later
+     * configuration changes of this validator are not reflected by already built validators.
+     *
+     * @return immutable snapshot of this validator.
+     */
+    public IValidator<T> build() {
+        return this.snapshot();
+    }
+
     /**
      * {@inheritDoc}
+     * <br><br>
+     * The object is validated by the snapshot of the current configuration (see {@link #build()}).
+     * If all checks are satisfied, the shared {@link ValidationResult#unmodifiableEmpty()} result
+     * is returned, so the validation of a valid object doesn't allocate a new result.
      *
      * @see IValidator#validate(java.lang.Object)
      */
     public final ValidationResult validate(T obj) {
-        ValidationResult vr = new ValidationResult();
-        for (Map.Entry<IValidationCheck<T>, IValidationMessage> e : checksContainer.entrySet()) {
-            if (this.prefix != null)
-                vr.addMessageWithPrefixIfCheckFailed(obj, e.getKey(), prefix, e.getValue());
-            else
-                vr.addMessageIfCheckFailed(obj, e.getKey(), e.getValue());
-            if (this.cancelOnFirstFailedCheck && vr.isNotEmpty())
-                break;
+        return this.snapshot().validate(obj);
+    }
+
+    /**
+     * Validates the given <tt>int</tt> value with the given validator. {@link IIntValidationCheck}s
+     * of (built) {@link Validator}s are executed without boxing the value, so the validator must
+     * be a validator of {@link Integer}s.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ValidationResult validateInt(IValidator<?> validator, int value) {
+        Built<?> built = built(validator);
+        return built != null ? built.validateInt(value) : ((IValidator) validator).validate(value);
+    }
+
+    /**
+     * Validates the given <tt>long</tt> value with the given validator. {@link ILongValidationCheck}s
+     * of (built) {@link Validator}s are executed without boxing the value, so the validator must
+     * be a validator of {@link Long}s.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ValidationResult validateLong(IValidator<?> validator, long value) {
+        Built<?> built = built(validator);
+        return built != null ? built.validateLong(value) : ((IValidator) validator).validate(value);
+    }
+
+    /**
+     * Validates the given <tt>double</tt> value with the given validator.
+     * {@link IDoubleValidationCheck}s of (built) {@link Validator}s are executed without boxing
+     * the value, so the validator must be a validator of {@link Double}s.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ValidationResult validateDouble(IValidator<?> validator, double value) {
+        Built<?> built = built(validator);
+        return built != null ? built.validateDouble(value) : ((IValidator) validator).validate(value);
+    }
+
+    /**
+     * Returns true, if the given validator is time-dependent (see {@link ITimeDependent}), a
+     * (built) {@link Validator} with a time-dependent check, a {@link CachingValidator} not
+     * caching its results or a (compiled) {@link HierarchicalValidator} with a time-dependent
+     * pre-, post-, field or nested validator.
+     */
+    static boolean isTimeDependent(IValidator<?> validator) {
+        return isTimeDependent(validator,
+                Collections.newSetFromMap(new IdentityHashMap<IValidator<?>, Boolean>()));
+    }
+
+    /**
+     * See {@link #isTimeDependent(IValidator)}. Already visited validators are skipped, so cyclic
+     * hierarchical validators are inspected once.
+     */
+    static boolean isTimeDependent(IValidator<?> validator, Set<IValidator<?>> visited) {
+        if (validator == null || !visited.add(validator))
+            return false;
+
+        if (validator instanceof ITimeDependent)
+            return true;
+
+        if (validator instanceof CachingValidator)
+            return !((CachingValidator<?>) validator).isCaching();
+
+        Built<?> built = built(validator);
+        if (built == null)
+            return HierarchicalValidator.isTimeDependent(validator, visited);
+
+        for (IValidationCheck<?> check : built.checks.checks) {
+            if (check instanceof ITimeDependent)
+                return true;
         }
-        return vr;
+        return false;
+    }
+
+    private static Built<?> built(IValidator<?> validator) {
+        if (validator instanceof Built)
+            return (Built<?>) validator;
+
+        if (validator instanceof Validator)
+            return ((Validator<?>) validator).snapshot();
+
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> IValidationCheck<T>[] newChecks(int size) {
+        return new IValidationCheck[size];
+    }
+
+    /**
+     * Returns the snapshot of the current configuration, building it on demand. The snapshot is
+     * published through a volatile field, so concurrent validations see a fully configured one.
+     */
+    private Built<T> snapshot() {
+        Built<T> built = this.built;
+        if (built == null)
+            this.built = built = new Built<T>(this);
+
+        return built;
     }
 
+
     /**
      * Set true, if you want to cancel validation procedure after first validation check fails.
      *
@@ -77,22 +232,51 @@ public class Validator<T> implements IValidator<T> {
      */
     public void setCancelOnFirstFailedCheck(boolean cancelOnFirstFailedCheck) {
         this.cancelOnFirstFailedCheck = cancelOnFirstFailedCheck;
+        this.built = null;
     }
 
     /**
-     * Adds validation checks associated with the given validation message.
+     * Adds validation checks associated with the given validation message. The checks are
+     * executed in the order they were added. A check added several times is executed once per
+     * addition, with the associated message.
      *
      * @param msg    is a validation message to use.
      * @param checks is an array of validation checks to execute.
      * @return this validator.
      */
     public Validator<T> addChecks(IValidationMessage msg, IValidationCheck<T>... checks) {
-        if (this.checksContainer == null)
-            this.checksContainer = new LinkedHashMap<IValidationCheck<T>, IValidationMessage>();
+        return this.addChecks(msg, -1, checks);
+    }
 
-        for (IValidationCheck<T> check : checks) {
-            this.checksContainer.put(check, msg);
-        }
+    /**
+     * Adds commutative validation checks associated with the given validation message. The checks
+     * must be free of side effects: since they share the message, the validation result doesn't
+     * depend on their order, so they may be executed in any order relative to each other (see
+     * {@link #withAdaptiveOrdering()}). Checks added before or after them are never moved across
+     * the group.
+     *
+     * @param msg    is a validation message to use.
+     * @param checks is an array of validation checks to execute.
+     * @return this validator.
+     */
+    @SuppressWarnings("unchecked")
+    public Validator<T> addCommutativeChecks(IValidationMessage msg,
+                                             IValidationCheck<T>... checks) {
+        return this.addChecks(msg, this.groupCount++, checks);
+    }
+
+    private Validator<T> addChecks(IValidationMessage msg, int group,
+                                   IValidationCheck<T>[] checks) {
+        int size = this.checks.length;
+        this.checks = Arrays.copyOf(this.checks, size + checks.length);
+        this.messages = Arrays.copyOf(this.messages, size + checks.length);
+        this.groups = Arrays.copyOf(this.groups, size + checks.length);
+
+        System.arraycopy(checks, 0, this.checks, size, checks.length);
+        Arrays.fill(this.messages, size, this.messages.length, msg);
+        Arrays.fill(this.groups, size, this.groups.length, group);
+
+        this.built = null;
 
         return this;
     }
@@ -138,4 +322,185 @@ public class Validator<T> implements IValidator<T> {
     public static <T> Validator<T> of(IValidationMessage msg, IValidationCheck<T>[] checks) {
         return new Validator<T>(msg, checks);
     }
+
+    /**
+     * Immutable snapshot of a validator (see {@link #build()}).
+     */
+    private static final class Built<T> implements IValidator<T> {
+
+        private final AdaptiveCheckOrder.Checks<T> checks;
+
+        /**
+         * Adaptive order of the commutative checks or null, if the checks are executed in the
+         * configured order.
+         */
+        private final AdaptiveCheckOrder<T> adaptive;
+
+        private final boolean cancelOnFirstFailedCheck;
+
+        private final CharSequence prefix;
+
+        private final IValidationListener listener;
+
+        Built(Validator<T> source) {
+            int[] indexes = new int[source.checks.length];
+            for (int i = 0; i < indexes.length; i++)
+                indexes[i] = i;
+
+            this.checks = new AdaptiveCheckOrder.Checks<T>(source.checks.clone(),
+                    source.messages.clone(), source.groups.clone(), indexes);
+            this.adaptive = source.adaptiveOrdering && source.groupCount > 0
+                    ? new AdaptiveCheckOrder<T>(this.checks) : null;
+            this.cancelOnFirstFailedCheck = source.cancelOnFirstFailedCheck;
+            this.prefix = source.prefix != null ? source.prefix.toString() : null;
+            this.listener = source.listener;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @see IValidator#validate(java.lang.Object)
+         */
+        public ValidationResult validate(T obj) {
+            return this.validate(FieldAccessor.OBJECT, obj, 0L, 0d);
+        }
+
+        ValidationResult validateInt(int value) {
+            return this.validate(FieldAccessor.INT, null, value, 0d);
+        }
+
+        ValidationResult validateLong(long value) {
+            return this.validate(FieldAccessor.LONG, null, value, 0d);
+        }
+
+        ValidationResult validateDouble(double value) {
+            return this.validate(FieldAccessor.DOUBLE, null, 0L, value);
+        }
+
+        /**
+         * Validates the value of the given kind (see {@link FieldAccessor#getKind()}): the object
+         * for {@link FieldAccessor#OBJECT}, otherwise the primitive value passed in
+         * <tt>longValue</tt> (<tt>int</tt>, <tt>long</tt>) or <tt>doubleValue</tt>.
+         */
+        private ValidationResult validate(int kind, Object obj, long longValue,
+                                          double doubleValue) {
+            AdaptiveCheckOrder<T> adaptive = this.adaptive;
+            if (adaptive != null && adaptive.sample())
+                return this.validateSampled(box(kind, obj, longValue, doubleValue));
+
+            AdaptiveCheckOrder.Checks<T> checks =
+                    adaptive != null ? adaptive.current() : this.checks;
+            IValidationListener listener = this.listener;
+            ValidationResult vr = null;
+            for (int i = 0; i < checks.size(); i++) {
+                long start = listener != null ? System.nanoTime() : 0L;
+                boolean satisfied =
+                        isSatisfied(checks.checks[i], kind, obj, longValue, doubleValue);
+                if (listener != null) {
+                    listener.checkCompleted(checks.messages[i], satisfied,
+                            System.nanoTime() - start);
+                }
+
+                if (satisfied)
+                    continue;
+
+                vr = this.addFailure(vr, checks.messages[i]);
+                if (this.cancelOnFirstFailedCheck)
+                    break;
+            }
+            return vr != null ? vr : ValidationResult.unmodifiableEmpty();
+        }
+
+        /**
+         * Executes the check on the value of the given kind, without boxing primitive values for
+         * the primitive check interfaces.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static boolean isSatisfied(IValidationCheck check, int kind, Object obj,
+                                           long longValue, double doubleValue) {
+            switch (kind) {
+                case FieldAccessor.INT:
+                    return check instanceof IIntValidationCheck
+                            ? ((IIntValidationCheck) check).isSatisfied((int) longValue)
+                            : check.isSatisfied((int) longValue);
+                case FieldAccessor.LONG:
+                    return check instanceof ILongValidationCheck
+                            ? ((ILongValidationCheck) check).isSatisfied(longValue)
+                            : check.isSatisfied(longValue);
+                case FieldAccessor.DOUBLE:
+                    return check instanceof IDoubleValidationCheck
+                            ? ((IDoubleValidationCheck) check).isSatisfied(doubleValue)
+                            : check.isSatisfied(doubleValue);
+                default:
+                    return check.isSatisfied(obj);
+            }
+        }
+
+        private static Object box(int kind, Object obj, long longValue, double doubleValue) {
+            switch (kind) {
+                case FieldAccessor.INT:
+                    return (int) longValue;
+                case FieldAccessor.LONG:
+                    return longValue;
+                case FieldAccessor.DOUBLE:
+                    return doubleValue;
+                default:
+                    return obj;
+            }
+        }
+
+        /**
+         * Validates the given (boxed) value sampling the commutative checks: once a check failed,
+         * the remaining checks of its group are executed as well, so the failure rates of all
+         * checks of the group are recorded. The validation result is not affected, since the
+         * checks of a group share their message.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private ValidationResult validateSampled(Object value) {
+            AdaptiveCheckOrder.Checks<T> checks = this.adaptive.current();
+            IValidationListener listener = this.listener;
+            ValidationResult vr = null;
+            boolean failed = false;
+            for (int i = 0; i < checks.size(); i++) {
+                int group = checks.groups[i];
+                if (failed && this.cancelOnFirstFailedCheck
+                        && (group < 0 || group != checks.groups[i - 1]))
+                    break;
+
+                long start = System.nanoTime();
+                boolean satisfied = ((IValidationCheck) checks.checks[i]).isSatisfied(value);
+                long nanos = System.nanoTime() - start;
+                if (listener != null)
+                    listener.checkCompleted(checks.messages[i], satisfied, nanos);
+
+                if (group >= 0)
+                    this.adaptive.record(checks.indexes[i], satisfied, nanos);
+
+                if (satisfied)
+                    continue;
+
+                if (!failed || !this.cancelOnFirstFailedCheck)
+                    vr = this.addFailure(vr, checks.messages[i]);
+
+                failed = true;
+            }
+            this.adaptive.sampled();
+            return vr != null ? vr : ValidationResult.unmodifiableEmpty();
+        }
+
+        /**
+         * Adds message of a failed check to the result <tt>vr</tt>, creating the latter on demand.
+         */
+        private ValidationResult addFailure(ValidationResult vr, IValidationMessage msg) {
+            if (vr == null)
+                vr = new ValidationResult();
+
+            if (this.prefix != null)
+                vr.addWithPrefix(this.prefix, msg);
+            else
+                vr.add(msg);
+
+            return vr;
+        }
+    }
 }
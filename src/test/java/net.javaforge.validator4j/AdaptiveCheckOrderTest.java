@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class AdaptiveCheckOrderTest extends TestCase {
+
+    @SuppressWarnings("unchecked")
+    private static AdaptiveCheckOrder.Checks<Integer> checks(int... groups) {
+        IValidationCheck<Integer>[] checks = new IValidationCheck[groups.length];
+        IValidationMessage[] messages = new IValidationMessage[groups.length];
+        int[] indexes = new int[groups.length];
+        for (int i = 0; i < groups.length; i++) {
+            checks[i] = PredefinedChecks.gt(i);
+            messages[i] = PredefinedMessages.IS_NOT_IN_RANGE;
+            indexes[i] = i;
+        }
+        return new AdaptiveCheckOrder.Checks<Integer>(checks, messages, groups, indexes);
+    }
+
+    public void testReordersByCostPerFailure() throws Exception {
+
+        AdaptiveCheckOrder<Integer> order = new AdaptiveCheckOrder<Integer>(checks(0, 0, 0));
+
+        // expensive, rarely failing
+        order.record(0, true, 1000);
+        order.record(0, false, 1000);
+        // cheap, often failing
+        order.record(1, false, 10);
+        order.record(1, false, 10);
+        // cheap, never failing
+        order.record(2, true, 10);
+        order.record(2, true, 10);
+
+        order.reorder();
+
+        AdaptiveCheckOrder.Checks<Integer> current = order.current();
+        assertEquals(1, current.indexes[0]);
+        assertEquals(0, current.indexes[1]);
+        assertEquals(2, current.indexes[2]);
+    }
+
+    public void testChecksAreNotMovedAcrossGroups() throws Exception {
+
+        AdaptiveCheckOrder<Integer> order =
+                new AdaptiveCheckOrder<Integer>(checks(-1, 0, 0, -1, 1, 1));
+
+        for (int i = 0; i < 6; i++)
+            order.record(i, false, 1000 - i * 100);
+
+        order.reorder();
+
+        int[] expected = {0, 2, 1, 3, 5, 4};
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(expected[i], order.current().indexes[i]);
+    }
+
+}
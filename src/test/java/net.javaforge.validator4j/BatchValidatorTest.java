@@ -0,0 +1,122 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class BatchValidatorTest extends TestCase {
+
+    private static final int SIZE = 100000;
+
+    private static IValidationMessage key = new IValidationMessage() {
+
+        private static final long serialVersionUID = 1L;
+
+        public CharSequence getKey() {
+            return "key";
+        }
+
+        public Severity getSeverity() {
+            return Severity.ERROR;
+        }
+
+        public CharSequence[] getArgs() {
+            return null;
+        }
+    };
+
+    private static IValidationCheck<Integer> notMultipleOfSeven = new IValidationCheck<Integer>() {
+        public boolean isSatisfied(Integer value) {
+            return value % 7 != 0;
+        }
+    };
+
+    private static List<Integer> values() {
+        List<Integer> values = new ArrayList<Integer>(SIZE);
+        for (int i = 0; i < SIZE; i++)
+            values.add(i);
+        return values;
+    }
+
+    private static BatchValidator<Integer> createValidator() {
+        return new BatchValidator<Integer>(Validator.of(key, notMultipleOfSeven));
+    }
+
+    private static void assertFailures(BatchValidationResult result) {
+        assertEquals(SIZE, result.size());
+        assertFalse(result.isValid());
+        assertEquals((SIZE + 6) / 7, result.getFailureCount());
+
+        for (int n = 0; n < result.getFailureCount(); n++) {
+            assertEquals(n * 7L, result.getFailedIndex(n));
+            assertTrue(result.getFailedResult(n).getMessages().contains(key));
+        }
+
+        for (long i = 0; i < SIZE; i++) {
+            assertEquals(i % 7 != 0, result.isValid(i));
+            assertEquals(i % 7 == 0, result.getResult(i).isNotEmpty());
+        }
+    }
+
+    public void testValidateAllSequential() throws Exception {
+
+        assertFailures(createValidator().validateAll(values()));
+        assertFailures(createValidator().validateAll(values().stream()));
+    }
+
+    public void testValidateAllParallel() throws Exception {
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BatchValidator<Integer> validator = createValidator().parallel(pool);
+            assertFailures(validator.validateAll(values()));
+
+            // spliterator of unknown size
+            Iterator<Integer> it = values().iterator();
+            assertFailures(validator.validateAll(Spliterators.spliteratorUnknownSize(it, 0)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testValidateAllValid() throws Exception {
+
+        BatchValidationResult result = createValidator().validateAll(new ArrayList<Integer>());
+        assertTrue(result.isValid());
+        assertEquals(0, result.size());
+        assertEquals(0, result.getFailedIndexes().length);
+
+        try {
+            result.getResult(0);
+            fail("IndexOutOfBoundsException should be thrown!");
+        } catch (IndexOutOfBoundsException e) {
+            // everything ok
+        }
+
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import junit.framework.TestCase;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.javaforge.validator4j.PredefinedChecks.email;
+import static net.javaforge.validator4j.PredefinedChecks.inTheFuture;
+import static net.javaforge.validator4j.PredefinedChecks.inThePast;
+import static net.javaforge.validator4j.PredefinedMessages.IS_NOT_VALID;
+
+/**
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class CachingValidatorTest extends TestCase {
+
+    private static final class CountingCheck implements IValidationCheck<CharSequence> {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        public boolean isSatisfied(CharSequence obj) {
+            this.calls.incrementAndGet();
+            return email().isSatisfied(obj);
+        }
+    }
+
+    public void testCachesValidationResults() throws Exception {
+
+        CountingCheck check = new CountingCheck();
+        CachingValidator<CharSequence> v = new CachingValidator<CharSequence>(
+                Validator.of(IS_NOT_VALID, check), 100, 1, TimeUnit.HOURS);
+
+        assertTrue(v.validate("john@example.com").isEmpty());
+        assertTrue(v.validate("john@example.com").isEmpty());
+        assertTrue(v.validate("john").isNotEmpty());
+
+        ValidationResult invalid = v.validate("john");
+        assertTrue(invalid.isNotEmpty());
+        invalid.add(PredefinedMessages.IS_NULL);
+        assertEquals(1, v.validate("john").size());
+
+        assertEquals(2, check.calls.get());
+        assertEquals(3, v.getHitCount());
+        assertEquals(2, v.getMissCount());
+    }
+
+    public void testEvictsBySizeAndTime() throws Exception {
+
+        CachingValidator.Check<CharSequence> bySize =
+                CachingValidator.of(new CountingCheck(), 1, 1, TimeUnit.HOURS);
+        bySize.isSatisfied("a@example.com");
+        bySize.isSatisfied("b@example.com");
+        assertEquals(1, bySize.getEvictionCount());
+
+        CountingCheck check = new CountingCheck();
+        CachingValidator.Check<CharSequence> byTime =
+                CachingValidator.of(check, 100, 1, TimeUnit.NANOSECONDS);
+        byTime.isSatisfied("a@example.com");
+        Thread.sleep(1);
+        byTime.isSatisfied("a@example.com");
+        assertEquals(2, check.calls.get());
+        assertEquals(1, byTime.getEvictionCount());
+        assertEquals(0, byTime.getHitCount());
+    }
+
+    public void testReplacingCachedValueDoesNotEvict() throws Exception {
+
+        MemoizationCache<String, Boolean> cache =
+                new MemoizationCache<String, Boolean>(2, TimeUnit.HOURS.toNanos(1));
+        cache.put("a", true);
+        cache.put("b", true);
+        cache.put("b", false);
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(Boolean.TRUE, cache.get("a"));
+        assertEquals(Boolean.FALSE, cache.get("b"));
+
+        // the oldest entry is evicted, never the one just added
+        cache.put("c", true);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("a"));
+        assertEquals(Boolean.TRUE, cache.get("c"));
+    }
+
+    public void testTimeDependentChecksAreNotCached() throws Exception {
+
+        assertFalse(CachingValidator.of(inTheFuture(), 100, 1, TimeUnit.HOURS).isCaching());
+        assertFalse(CachingValidator.of(PredefinedChecks.<Date>nullOr(inTheFuture()), 100, 1,
+                TimeUnit.HOURS).isCaching());
+        assertFalse(new CachingValidator<Date>(Validator.of(IS_NOT_VALID, inTheFuture()), 100, 1,
+                TimeUnit.HOURS).isCaching());
+        assertFalse(new CachingValidator<Date>(Validator.of(IS_NOT_VALID, inTheFuture()).build(),
+                100, 1, TimeUnit.HOURS).isCaching());
+
+        assertTrue(CachingValidator.of(email(), 100, 1, TimeUnit.HOURS).isCaching());
+    }
+
+    public static class Event {
+
+        public Date date;
+
+        public Event parent;
+    }
+
+    public void testHierarchicalValidatorsWithTimeDependentValidatorsAreNotCached()
+            throws Exception {
+
+        HierarchicalValidator<Event> byField = new HierarchicalValidator<Event>()
+                .addFieldValidator("date", IS_NOT_VALID, inThePast());
+        assertFalse(new CachingValidator<Event>(byField, 100, 1, TimeUnit.HOURS).isCaching());
+        assertFalse(new CachingValidator<Event>(byField.build(), 100, 1, TimeUnit.HOURS)
+                .isCaching());
+        assertFalse(new CachingValidator<Event>(byField.compile(Event.class), 100, 1,
+                TimeUnit.HOURS).isCaching());
+
+        HierarchicalValidator<Event> nested = new HierarchicalValidator<Event>();
+        nested.addFieldValidator("parent", nested).addFieldValidator("parent", byField);
+        assertFalse(new CachingValidator<Event>(nested, 100, 1, TimeUnit.HOURS).isCaching());
+        assertFalse(new CachingValidator<Event>(nested.compile(Event.class), 100, 1,
+                TimeUnit.HOURS).isCaching());
+
+        HierarchicalValidator<Event> cyclic = new HierarchicalValidator<Event>();
+        cyclic.addFieldValidator("parent", cyclic)
+                .addFieldValidator("date", IS_NOT_VALID, PredefinedChecks.notNull());
+        assertTrue(new CachingValidator<Event>(cyclic, 100, 1, TimeUnit.HOURS).isCaching());
+        assertTrue(new CachingValidator<Event>(cyclic.build(), 100, 1, TimeUnit.HOURS)
+                .isCaching());
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class FieldAccessorTest extends TestCase {
+
+    public static class BaseBean {
+
+        private String name = "base";
+
+        protected int count = 42;
+    }
+
+    public static class ChildBean extends BaseBean {
+
+        private String child = "child";
+
+        private long size = 7L;
+
+        private double ratio = 0.5d;
+    }
+
+    public void testResolvesDeclaredAndInheritedFields() throws Exception {
+
+        ChildBean bean = new ChildBean();
+
+        assertEquals("child", FieldAccessor.of(ChildBean.class, "child").get(bean));
+        assertEquals("base", FieldAccessor.of(ChildBean.class, "name").get(bean));
+        assertEquals(42, FieldAccessor.of(ChildBean.class, "count").get(bean));
+    }
+
+    public void testReadsPrimitiveFieldsUnboxed() throws Exception {
+
+        ChildBean bean = new ChildBean();
+
+        FieldAccessor count = FieldAccessor.of(ChildBean.class, "count");
+        assertEquals(FieldAccessor.INT, count.getKind());
+        assertEquals(42, count.getInt(bean));
+
+        FieldAccessor size = FieldAccessor.of(ChildBean.class, "size");
+        assertEquals(FieldAccessor.LONG, size.getKind());
+        assertEquals(7L, size.getLong(bean));
+
+        FieldAccessor ratio = FieldAccessor.of(ChildBean.class, "ratio");
+        assertEquals(FieldAccessor.DOUBLE, ratio.getKind());
+        assertEquals(0.5d, ratio.getDouble(bean));
+
+        assertEquals(FieldAccessor.OBJECT, FieldAccessor.of(ChildBean.class, "child").getKind());
+    }
+
+    public void testAccessorIsCachedPerClassAndField() throws Exception {
+
+        assertSame(FieldAccessor.of(ChildBean.class, "name"),
+                FieldAccessor.of(ChildBean.class, new StringBuilder("name")));
+        assertNotSame(FieldAccessor.of(ChildBean.class, "name"),
+                FieldAccessor.of(BaseBean.class, "name"));
+    }
+
+    public void testUnknownField() throws Exception {
+
+        try {
+            FieldAccessor.of(ChildBean.class, "unknown");
+            fail("NoSuchFieldException should be thrown!");
+        } catch (NoSuchFieldException e) {
+            // everything ok
+        }
+
+    }
+
+}
@@ -20,7 +20,17 @@ import junit.framework.TestCase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -113,4 +123,432 @@ public class HierarchicalValidatorTest extends TestCase {
         }
 
     }
+
+    public void testValidBeanReturnsSharedEmptyResult() throws Exception {
+
+        RootBean bean = new RootBean(50, new ChildBean1("abc"), new ChildBean2(20, new Date(0)));
+
+        HierarchicalValidator<RootBean> v = new HierarchicalValidator<RootBean>()
+                .withPrefix("root")
+                .addFieldValidator("id", PredefinedMessages.IS_NOT_IN_RANGE.withArgs("10", "100"),
+                        PredefinedChecks.inRange(10, 100))
+                .addFieldValidator("childBean1", new HierarchicalValidator<ChildBean1>()
+                        .addFieldValidator("name", PredefinedMessages.IS_NULL,
+                                PredefinedChecks.notNull()));
+
+        ValidationResult vr = v.validate(bean);
+        assertTrue(vr.isEmpty());
+        assertSame(ValidationResult.unmodifiableEmpty(), vr);
+    }
+
+    public void testParallelFieldValidation() throws Exception {
+
+        RootBean bean = new RootBean(1, new ChildBean1(null), new ChildBean2(2, null));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+
+            ValidationResult expected = createValidator().validate(bean);
+            ValidationResult actual = createValidator().parallelFields(executor).validate(bean);
+            assertEquals(4, actual.size());
+            assertEquals(expected.toString(), actual.toString());
+
+            expected = createValidator().stopOnFirstInvalidField().validate(bean);
+            actual = createValidator().stopOnFirstInvalidField().parallelFields(executor)
+                    .validate(bean);
+            assertEquals(1, actual.size());
+            assertEquals(expected.toString(), actual.toString());
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testParallelFieldValidationKeepsFieldOrder() throws Exception {
+
+        IValidationCheck<Object> slow = new IValidationCheck<Object>() {
+            public boolean isSatisfied(Object obj) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+
+            ValidationResult vr = new HierarchicalValidator<RootBean>()
+                    .parallelFields(executor)
+                    .addFieldValidator("id", PredefinedMessages.IS_NOT_VALID, slow)
+                    .addFieldValidator("childBean1", PredefinedMessages.IS_NULL, PredefinedChecks.isNull())
+                    .addFieldValidator("childBean2", PredefinedMessages.IS_NULL, PredefinedChecks.isNull())
+                    .validate(new RootBean(1, new ChildBean1("a"), new ChildBean2(1, null)));
+
+            IValidationMessage[] messages = vr.getMessages().toArray(new IValidationMessage[3]);
+            assertEquals("id.IS_NOT_VALID", messages[0].getKey().toString());
+            assertEquals("childBean1.IS_NULL", messages[1].getKey().toString());
+            assertEquals("childBean2.IS_NULL", messages[2].getKey().toString());
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testCompiledValidatorProducesSameResult() throws Exception {
+
+        RootBean[] beans = {
+                new RootBean(1, new ChildBean1("abc"), new ChildBean2(2, null)),
+                new RootBean(1, new ChildBean1(null), null),
+                new RootBean(50, new ChildBean1("abc"), new ChildBean2(20, new Date(0))),
+                new RootBean(100, null, new ChildBean2(70, new Date(Long.MAX_VALUE))),
+                null
+        };
+
+        HierarchicalValidator<RootBean> v = createValidator();
+        IValidator<RootBean> compiled = v.compile(RootBean.class);
+        for (RootBean bean : beans) {
+            ValidationResult expected = v.validate(bean);
+            ValidationResult actual = compiled.validate(bean);
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expected.isEmpty(), actual == ValidationResult.unmodifiableEmpty());
+        }
+
+        v = createValidator().stopOnFirstInvalidField();
+        compiled = v.compile(RootBean.class);
+        for (RootBean bean : beans)
+            assertEquals(v.validate(bean).toString(), compiled.validate(bean).toString());
+    }
+
+    public void testCompiledValidatorUsesOverriddenHooks() throws Exception {
+
+        HierarchicalValidator<ChildBean1> v = new HierarchicalValidator<ChildBean1>() {
+            @Override
+            protected ValidationResult preValidate(ChildBean1 obj) {
+                return new ValidationResult(PredefinedMessages.IS_NOT_VALID);
+            }
+        }.processFieldsIfPreValidationFails()
+                .addFieldValidator("name", PredefinedMessages.IS_NULL, PredefinedChecks.notNull());
+
+        ValidationResult vr = v.compile(ChildBean1.class).validate(new ChildBean1(null));
+        assertEquals(2, vr.size());
+        assertEquals(v.validate(new ChildBean1(null)).toString(), vr.toString());
+    }
+
+    public class Holder {
+        public Holder(Object child) {
+            this.child = child;
+        }
+
+        public Object child;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void testCompiledValidatorSnapshotsUnresolvableNestedValidator() throws Exception {
+
+        HierarchicalValidator nested = new HierarchicalValidator<ChildBean1>()
+                .addFieldValidator("name", PredefinedMessages.IS_NULL, PredefinedChecks.notNull());
+        HierarchicalValidator<Holder> v = new HierarchicalValidator<Holder>()
+                .addFieldValidator("child", nested);
+
+        // the declared type Object has no field 'name', the nested validator is built untyped
+        IValidator<Holder> compiled = v.compile(Holder.class);
+        nested.addFieldValidator("name", PredefinedMessages.IS_NOT_ALPHA,
+                PredefinedChecks.alpha());
+
+        Holder holder = new Holder(new ChildBean1("123"));
+        assertTrue(compiled.validate(holder).isEmpty());
+        assertEquals("[child.name.IS_NOT_ALPHA]", keys(v.validate(holder)));
+    }
+
+    public void testCompileUnknownField() throws Exception {
+
+        try {
+            new HierarchicalValidator<ChildBean1>()
+                    .addFieldValidator("unknown", PredefinedMessages.IS_NULL, PredefinedChecks.notNull())
+                    .compile(ChildBean1.class);
+            fail("IllegalArgumentException should be thrown!");
+        } catch (IllegalArgumentException e) {
+            // everything ok
+        }
+
+    }
+
+    public class Order {
+        public Order(Address address, List<Item> items) {
+            this.address = address;
+            this.items = items;
+        }
+
+        public Address address;
+
+        public List<Item> items;
+
+        public Map<String, Item> itemsByCode = new LinkedHashMap<String, Item>();
+
+        public int[] quantities;
+    }
+
+    public class Address {
+        public Address(String city) {
+            this.city = city;
+        }
+
+        public String city;
+    }
+
+    public class Item {
+        public Item(double price) {
+            this.price = price;
+        }
+
+        public double price;
+    }
+
+    public class Node {
+        public Node(String name) {
+            this.name = name;
+        }
+
+        public String name;
+
+        public Node next;
+    }
+
+    public void testPrefixChangesAfterAddingFields() throws Exception {
+
+        HierarchicalValidator<ChildBean1> v = new HierarchicalValidator<ChildBean1>()
+                .addFieldValidator("name", PredefinedMessages.IS_NULL, PredefinedChecks.notNull());
+        assertEquals("[name.IS_NULL]", keys(v.validate(new ChildBean1(null))));
+
+        v.withPrefix("child");
+        assertEquals("[child.name.IS_NULL]", keys(v.validate(new ChildBean1(null))));
+
+        v.withoutFieldPrefix();
+        assertEquals("[child.IS_NULL]", keys(v.validate(new ChildBean1(null))));
+    }
+
+    public void testNestedResultsAreCollectedOnce() throws Exception {
+
+        RootBean bean = new RootBean(1, new ChildBean1(null), new ChildBean2(2, null));
+        HierarchicalValidator<RootBean> v = createValidator();
+
+        for (IValidator<RootBean> validator : Arrays.<IValidator<RootBean>>asList(
+                v, v.build(), v.compile(RootBean.class))) {
+            ValidationResult vr = validator.validate(bean);
+            assertTrue(vr.isModifiable());
+            assertEquals("[root.id.IS_NOT_IN_RANGE, root.childBean1.name.IS_NULL,"
+                    + " root.childBean2.age.IS_NOT_IN_RANGE, root.childBean2.date.IS_NOT_VALID]",
+                    keys(vr));
+            vr.add(PredefinedMessages.IS_NULL);
+            assertEquals(5, vr.size());
+        }
+    }
+
+    public void testFieldPaths() throws Exception {
+
+        Order order = new Order(new Address(null),
+                Arrays.asList(new Item(1), new Item(-1), new Item(-2)));
+        order.itemsByCode.put("a", new Item(-3));
+        order.quantities = new int[]{1, 0};
+
+        HierarchicalValidator<Order> v = new HierarchicalValidator<Order>()
+                .withPrefix("order")
+                .addFieldValidator("address.city", PredefinedMessages.IS_NULL,
+                        PredefinedChecks.notNull())
+                .addFieldValidator("items[*].price", PredefinedMessages.IS_LTE.withArgs("0"),
+                        PredefinedChecks.gt(0d))
+                .addFieldValidator("itemsByCode[*].price", PredefinedMessages.IS_LTE.withArgs("0"),
+                        PredefinedChecks.gt(0d))
+                .addFieldValidator("quantities[*]", PredefinedMessages.IS_LTE.withArgs("0"),
+                        PredefinedChecks.gt(0));
+
+        String expected = "[order.address.city.IS_NULL, order.items[1].price.IS_LTE,"
+                + " order.items[2].price.IS_LTE, order.itemsByCode[a].price.IS_LTE,"
+                + " order.quantities[1].IS_LTE]";
+
+        assertEquals(expected, keys(v.validate(order)));
+        assertEquals(expected, keys(v.build().validate(order)));
+        assertEquals(expected, keys(v.compile(Order.class).validate(order)));
+
+        // a null collection selects no values, a null field selects null
+        order = new Order(null, null);
+        assertEquals("[order.address.city.IS_NULL]", keys(v.validate(order)));
+        assertEquals("[order.address.city.IS_NULL]", keys(v.compile(Order.class).validate(order)));
+    }
+
+    public void testElementPathsAreNotInterned() throws Exception {
+
+        List<Item> items = new ArrayList<Item>();
+        for (int i = 0; i < 3000; i++)
+            items.add(new Item(-i));
+
+        HierarchicalValidator<Order> v = new HierarchicalValidator<Order>()
+                .withPrefix("order")
+                .addFieldValidator("address.city", PredefinedMessages.IS_NULL,
+                        PredefinedChecks.notNull())
+                .addFieldValidator("items[*].price", PredefinedMessages.IS_LTE.withArgs("0"),
+                        PredefinedChecks.gt(0d));
+
+        Order noItems = new Order(new Address(null), null);
+        String before = prefix(v.validate(noItems));
+
+        ValidationResult vr = v.validate(new Order(new Address(null), items));
+        assertEquals(3001, vr.size());
+        assertTrue(keys(vr).endsWith(", order.items[2999].price.IS_LTE]"));
+
+        // the static prefix survives thousands of failing elements in the shared caches
+        assertSame(before, prefix(v.validate(noItems)));
+    }
+
+    private static String prefix(ValidationResult vr) {
+        return ((PrefixedValidationMessage) vr.iterator().next()).getPrefix();
+    }
+
+    public void testInvalidFieldPath() throws Exception {
+
+        for (String path : new String[]{"a..b", "a[1]", "a[*", ".a", "a.", "[*]"}) {
+            try {
+                new HierarchicalValidator<Order>().addFieldValidator(path,
+                        PredefinedMessages.IS_NULL, PredefinedChecks.notNull());
+                fail("IllegalArgumentException should be thrown for '" + path + "'!");
+            } catch (IllegalArgumentException e) {
+                // everything ok
+            }
+        }
+    }
+
+    public void testFieldPathTraversesLargeCollections() throws Exception {
+
+        Item[] items = new Item[200000];
+        for (int i = 0; i < items.length; i++)
+            items[i] = new Item(i == 150000 ? -1 : 1);
+
+        HierarchicalValidator<Order> v = new HierarchicalValidator<Order>()
+                .addFieldValidator("items[*].price", PredefinedMessages.IS_LTE.withArgs("0"),
+                        PredefinedChecks.gt(0d));
+
+        assertEquals("[items[150000].price.IS_LTE]",
+                keys(v.validate(new Order(null, Arrays.asList(items)))));
+    }
+
+    public void testCycleDetection() throws Exception {
+
+        HierarchicalValidator<Node> v = new HierarchicalValidator<Node>().detectCycles();
+        v.addFieldValidator("name", PredefinedMessages.IS_NULL, PredefinedChecks.notNull())
+                .addFieldValidator("next", v);
+
+        Node a = new Node("a");
+        Node b = new Node(null);
+        a.next = b;
+        b.next = a;
+
+        assertEquals("[next.name.IS_NULL]", keys(v.validate(a)));
+        assertEquals("[next.name.IS_NULL]", keys(v.build().validate(a)));
+        assertEquals("[next.name.IS_NULL]", keys(v.compile(Node.class).validate(a)));
+        assertEquals("[name.IS_NULL]", keys(v.validate(b)));
+    }
+
+    public void testCycleDetectionWithParallelFields() throws Exception {
+
+        Node a = new Node("a");
+        Node b = new Node(null);
+        a.next = b;
+        b.next = a;
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final HierarchicalValidator<Node> v = new HierarchicalValidator<Node>()
+                    .detectCycles().parallelFields(executor);
+            v.addFieldValidator("name", PredefinedMessages.IS_NULL, PredefinedChecks.notNull())
+                    .addFieldValidator("next", v);
+
+            assertEquals("[next.name.IS_NULL]", keys(validateWithTimeout(v, a)));
+            assertEquals("[name.IS_NULL]", keys(validateWithTimeout(v, b)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testNestedParallelFieldsDeeperThanPool() throws Exception {
+
+        Node root = new Node("0");
+        Node node = root;
+        for (int i = 1; i < 8; i++) {
+            node.next = new Node(i < 7 ? String.valueOf(i) : null);
+            node = node.next;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // one validator per level, all of them sharing the pool
+            HierarchicalValidator<Node> v = null;
+            for (int i = 7; i >= 0; i--) {
+                HierarchicalValidator<Node> level = new HierarchicalValidator<Node>()
+                        .parallelFields(executor)
+                        .addFieldValidator("name", PredefinedMessages.IS_NULL,
+                                PredefinedChecks.notNull());
+                v = v != null ? level.addFieldValidator("next", v) : level;
+            }
+
+            assertEquals("[next.next.next.next.next.next.next.name.IS_NULL]",
+                    keys(validateWithTimeout(v, root)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> ValidationResult validateWithTimeout(final IValidator<T> v, final T obj)
+            throws Exception {
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            return caller.submit(new Callable<ValidationResult>() {
+                public ValidationResult call() {
+                    return v.validate(obj);
+                }
+            }).get(10, TimeUnit.SECONDS);
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    private static String keys(ValidationResult result) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Iterator<IValidationMessage> it = result.iterator(); it.hasNext(); )
+            sb.append(it.next().getKey()).append(it.hasNext() ? ", " : "");
+        return sb.append(']').toString();
+    }
+
+    private HierarchicalValidator<RootBean> createValidator() {
+
+        IValidator<ChildBean1> v1 =
+                new HierarchicalValidator<ChildBean1>()
+                        .withPreValidator(PredefinedMessages.IS_NULL, PredefinedChecks.<ChildBean1>notNull())
+                        .processFieldsIfPreValidationFails()
+                        .addFieldValidator("name", PredefinedMessages.IS_NULL, PredefinedChecks.notNull());
+
+        IValidator<ChildBean2> v2 =
+                new HierarchicalValidator<ChildBean2>()
+                        .withPreValidator(PredefinedMessages.IS_NULL, PredefinedChecks.<ChildBean2>notNull())
+                        .processFieldsIfPreValidationFails()
+                        .addFieldValidator(
+                                "age", //
+                                Validator.of(PredefinedMessages.IS_NULL, PredefinedChecks.notNull()),
+                                Validator.of(PredefinedMessages.IS_NOT_IN_RANGE.withArgs("12", "60"),
+                                        PredefinedChecks.inRange(12, 60)))
+                        .addFieldValidator("date", PredefinedMessages.IS_NOT_VALID, PredefinedChecks.notNull(), PredefinedChecks.inThePast());
+
+        return new HierarchicalValidator<RootBean>()
+                .withPrefix("root")
+                .addFieldValidator(
+                        "id", //
+                        Validator.of(PredefinedMessages.IS_NULL, PredefinedChecks.notNull()),
+                        Validator.of(PredefinedMessages.IS_NOT_IN_RANGE.withArgs("10", "100"),
+                                PredefinedChecks.inRange(10, 100)),
+                        Validator.of(PredefinedMessages.IS_LTE.withArgs("10"), PredefinedChecks.gt(10)),
+                        Validator.of(PredefinedMessages.IS_GTE.withArgs("100"), PredefinedChecks.lt(100)))
+                .addFieldValidator("childBean1", v1)//
+                .addFieldValidator("childBean2", v2);
+    }
 }
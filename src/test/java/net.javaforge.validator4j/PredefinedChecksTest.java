@@ -0,0 +1,344 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.regex.Pattern;
+
+/**
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class PredefinedChecksTest extends TestCase {
+
+    private static final int CORPUS_SIZE = 200000;
+
+    private static final String EMAIL_ALPHABET = "aZk09_-.@@..-xX\u212A\u017F\u00E9 \n+";
+
+    private static final String PHONE_ALPHABET = "0123456789 ()+-/*,?{}[]\\dx.\n\u0660";
+
+    public void testEmail() {
+        IValidationCheck<CharSequence> email = PredefinedChecks.email();
+
+        assertTrue(email.isSatisfied("john.doe@example.com"));
+        assertTrue(email.isSatisfied("j_d-1@sub-1.example.CoM"));
+        assertFalse(email.isSatisfied(null));
+        assertFalse(email.isSatisfied(""));
+        assertFalse(email.isSatisfied("john..doe@example.com"));
+        assertFalse(email.isSatisfied(".john@example.com"));
+        assertFalse(email.isSatisfied("john@example"));
+        assertFalse(email.isSatisfied("john@example.c"));
+        assertFalse(email.isSatisfied("john@example.c0m"));
+        assertFalse(email.isSatisfied("john@exa_mple.com"));
+        assertFalse(email.isSatisfied("john@example.com\n"));
+    }
+
+    public void testPhone() {
+        IValidationCheck<CharSequence> phone = PredefinedChecks.phone();
+
+        assertTrue(phone.isSatisfied("+49 (0)89 / 123 456-789"));
+        assertFalse(phone.isSatisfied(null));
+        assertFalse(phone.isSatisfied(""));
+        assertFalse(phone.isSatisfied("+49 89 123 ext. 12"));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testCombinators() {
+        IValidationCheck<Integer> failing = new IValidationCheck<Integer>() {
+            public boolean isSatisfied(Integer obj) {
+                throw new AssertionError("check should not be executed");
+            }
+        };
+
+        assertTrue(PredefinedChecks.<Integer>and(PredefinedChecks.gt(1), PredefinedChecks.lt(5))
+                .isSatisfied(3));
+        assertFalse(PredefinedChecks.and(PredefinedChecks.gt(5), failing).isSatisfied(3));
+        assertTrue(PredefinedChecks.or(PredefinedChecks.gt(1), failing).isSatisfied(3));
+        assertFalse(PredefinedChecks.<Integer>or(PredefinedChecks.gt(5), PredefinedChecks.lt(1))
+                .isSatisfied(3));
+        assertTrue(PredefinedChecks.not(PredefinedChecks.gt(5)).isSatisfied(3));
+
+        assertTrue(PredefinedChecks.<Integer>allOf().isSatisfied(3));
+        assertFalse(PredefinedChecks.allOf(PredefinedChecks.gt(1), PredefinedChecks.gt(5), failing)
+                .isSatisfied(3));
+        assertFalse(PredefinedChecks.<Integer>anyOf().isSatisfied(3));
+        assertTrue(PredefinedChecks.anyOf(PredefinedChecks.eq(2), PredefinedChecks.eq(3), failing)
+                .isSatisfied(3));
+
+        assertTrue(PredefinedChecks.nullOr(failing).isSatisfied(null));
+        assertFalse(PredefinedChecks.nullOr(PredefinedChecks.email()).isSatisfied("john"));
+    }
+
+    public void testIndexedIn() {
+        Integer[] ints = new Integer[100];
+        String[] strings = new String[100];
+        BigDecimal[] decimals = new BigDecimal[100];
+        for (int i = 0; i < 100; i++) {
+            ints[i] = i * 3;
+            strings[i] = "code" + i;
+            decimals[i] = new BigDecimal(i + ".0");
+        }
+
+        IValidationCheck<Integer> intIn = PredefinedChecks.in(ints);
+        assertTrue(intIn instanceof IIntValidationCheck);
+        assertTrue(intIn.isSatisfied(99));
+        assertFalse(intIn.isSatisfied(100));
+        assertFalse(intIn.isSatisfied(-3));
+
+        IValidationCheck<String> stringIn = PredefinedChecks.in(strings);
+        assertTrue(stringIn.isSatisfied("code42"));
+        assertFalse(stringIn.isSatisfied("code100"));
+        assertFalse(stringIn.isSatisfied(null));
+
+        // compared by compareTo like the linear scan, so the scale doesn't matter
+        IValidationCheck<BigDecimal> decimalIn = PredefinedChecks.in(decimals);
+        assertTrue(decimalIn.isSatisfied(new BigDecimal("42.00")));
+        assertFalse(decimalIn.isSatisfied(new BigDecimal("42.5")));
+
+        IValidationCheck<IValidationMessage.Severity> enumIn =
+                PredefinedChecks.in(EnumSet.of(IValidationMessage.Severity.ERROR));
+        assertTrue(enumIn.isSatisfied(IValidationMessage.Severity.ERROR));
+        assertFalse(enumIn.isSatisfied(IValidationMessage.Severity.WARN));
+        assertFalse(enumIn.isSatisfied(null));
+
+        IIntValidationCheck sparse = (IIntValidationCheck) PredefinedChecks.inInts(
+                Integer.MIN_VALUE, 0, Integer.MAX_VALUE);
+        assertTrue(sparse.isSatisfied(Integer.MAX_VALUE));
+        assertFalse(sparse.isSatisfied(1));
+        assertFalse(((IIntValidationCheck) PredefinedChecks.inInts()).isSatisfied(0));
+    }
+
+    public void testInRejectsNullForSmallAndLargeValueSets() {
+        Integer[] big = new Integer[100];
+        for (int i = 0; i < big.length; i++) {
+            big[i] = i;
+        }
+
+        assertFalse(PredefinedChecks.in(1, 2, 3).isSatisfied(null));
+        assertFalse(PredefinedChecks.in(big).isSatisfied(null));
+        assertFalse(PredefinedChecks.inInts(1, 2, 3).isSatisfied(null));
+        assertFalse(PredefinedChecks.inInts(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16)
+                .isSatisfied(null));
+
+        assertFalse(new Validator<Integer>(PredefinedMessages.IS_NOT_VALID, PredefinedChecks.in(1, 2))
+                .validate(null).isEmpty());
+        assertFalse(new Validator<Integer>(PredefinedMessages.IS_NOT_VALID, PredefinedChecks.in(big))
+                .validate(null).isEmpty());
+    }
+
+    public void testTemporalChecksReadClockOnEveryCheck() {
+        MutableClock clock = new MutableClock(Instant.parse("2013-03-28T23:30:00Z"),
+                ZoneId.of("Europe/Berlin"));
+
+        IValidationCheck<Object> future = PredefinedChecks.inTheFuture(clock);
+        IValidationCheck<Object> past = PredefinedChecks.inThePast(clock);
+        IValidationCheck<Object> today = PredefinedChecks.today(clock);
+
+        Instant later = Instant.parse("2013-03-28T23:30:00.001Z");
+        assertTrue(future.isSatisfied(later));
+        assertFalse(past.isSatisfied(later));
+        assertTrue(future.isSatisfied(new Date(later.toEpochMilli())));
+        assertTrue(future.isSatisfied(OffsetDateTime.ofInstant(later, ZoneOffset.ofHours(-5))));
+        assertTrue(future.isSatisfied(ZonedDateTime.ofInstant(later, ZoneId.of("Asia/Tokyo"))));
+        assertFalse(future.isSatisfied(clock.instant()));
+        assertFalse(past.isSatisfied(clock.instant()));
+
+        // already March 29th in Berlin
+        assertTrue(today.isSatisfied(LocalDate.of(2013, 3, 29)));
+        assertTrue(today.isSatisfied(Instant.parse("2013-03-28T23:00:00Z")));
+        assertFalse(today.isSatisfied(Instant.parse("2013-03-28T22:59:59Z")));
+        assertTrue(past.isSatisfied(LocalDate.of(2013, 3, 28)));
+        assertTrue(future.isSatisfied(LocalDateTime.of(2013, 3, 29, 0, 31)));
+        assertFalse(today.isSatisfied(null));
+        assertTrue(PredefinedChecks.inThePastOrNull(clock).isSatisfied(null));
+
+        clock.now = Instant.parse("2013-03-29T23:30:00Z");
+        assertTrue(past.isSatisfied(later));
+        assertFalse(today.isSatisfied(LocalDate.of(2013, 3, 29)));
+
+        assertTrue(PredefinedChecks.inTheFuture(clock) instanceof ITimeDependent);
+        try {
+            future.isSatisfied("2013-03-29");
+            fail("IllegalArgumentException should be thrown!");
+        } catch (IllegalArgumentException e) {
+            // everything ok
+        }
+    }
+
+    public void testSameDay() {
+        Date noon = new Date(LocalDateTime.of(2013, 3, 28, 12, 0)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        Date morning = new Date(LocalDateTime.of(2013, 3, 28, 0, 0)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        Date dayBefore = new Date(morning.getTime() - 1);
+
+        assertTrue(PredefinedChecks.sameDay(noon).isSatisfied(morning));
+        assertFalse(PredefinedChecks.sameDay(noon).isSatisfied(dayBefore));
+        assertEquals(DateUtils.isSameDay(noon, dayBefore),
+                PredefinedChecks.sameDay(noon).isSatisfied(dayBefore));
+        assertTrue(PredefinedChecks.sameDayOrNull(noon).isSatisfied(null));
+    }
+
+    public void testSameDayReadsDefaultTimeZoneOnEveryCheck() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            Date midnight = new Date(Instant.parse("2013-03-28T00:00:00Z").toEpochMilli());
+            Date lateEvening = new Date(Instant.parse("2013-03-27T23:00:00Z").toEpochMilli());
+            IValidationCheck<Date> check = PredefinedChecks.sameDay(midnight);
+            assertFalse(check.isSatisfied(lateEvening));
+
+            TimeZone.setDefault(TimeZone.getTimeZone("Europe/Berlin"));
+            assertTrue(check.isSatisfied(lateEvening));
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+
+        // a null value fails when the check runs, not when it's created
+        IValidationCheck<Date> check = PredefinedChecks.sameDay(null);
+        try {
+            check.isSatisfied(new Date());
+            fail("IllegalArgumentException should be thrown!");
+        } catch (IllegalArgumentException e) {
+            // everything ok
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        Instant now;
+
+        private final ZoneId zone;
+
+        MutableClock(Instant now, ZoneId zone) {
+            this.now = now;
+            this.zone = zone;
+        }
+
+        public ZoneId getZone() {
+            return this.zone;
+        }
+
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(this.now, zone);
+        }
+
+        public Instant instant() {
+            return this.now;
+        }
+    }
+
+    public void testPrimitiveNumberChecks() {
+        IValidationCheck<Integer> intRange = PredefinedChecks.inRange(10, 20);
+        assertTrue(intRange instanceof IIntValidationCheck);
+        assertTrue(((IIntValidationCheck) intRange).isSatisfied(10));
+        assertFalse(((IIntValidationCheck) intRange).isSatisfied(21));
+        assertTrue(intRange.isSatisfied(Integer.valueOf(20)));
+        assertFalse(PredefinedChecks.inRange(10, 20, false).isSatisfied(20));
+
+        ILongValidationCheck longGt = (ILongValidationCheck) PredefinedChecks.gt(5L);
+        assertTrue(longGt.isSatisfied(6L));
+        assertFalse(longGt.isSatisfied(5L));
+
+        IDoubleValidationCheck doubleLte = (IDoubleValidationCheck) PredefinedChecks.lte(1.5d);
+        assertTrue(doubleLte.isSatisfied(1.5d));
+        assertFalse(doubleLte.isSatisfied(Double.NaN));
+        assertTrue(PredefinedChecks.neq(0.0d).isSatisfied(-0.0d));
+    }
+
+    public void testEmailMatchesRegularExpression() {
+        Random random = new Random(4711);
+        IValidationCheck<CharSequence> email = PredefinedChecks.email();
+        Pattern regexp = PredefinedPatterns.email();
+
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            String s = i % 2 == 0 ? randomString(random, EMAIL_ALPHABET, 24)
+                    : mutate(random, randomEmail(random), EMAIL_ALPHABET);
+            assertEquals("Mismatch on '" + s + "'", regexp.matcher(s).matches(), email.isSatisfied(s));
+        }
+    }
+
+    public void testPhoneMatchesRegularExpression() {
+        Random random = new Random(4711);
+        IValidationCheck<CharSequence> phone = PredefinedChecks.phone();
+        Pattern regexp = PredefinedPatterns.phone();
+
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            String s = randomString(random, PHONE_ALPHABET, 24);
+            assertEquals("Mismatch on '" + s + "'", regexp.matcher(s).matches(), phone.isSatisfied(s));
+        }
+
+        for (char c = 0; c < Character.MAX_VALUE; c++) {
+            String s = "12" + c;
+            assertEquals("Mismatch on char " + (int) c, regexp.matcher(s).matches(), phone.isSatisfied(s));
+        }
+    }
+
+    private static String randomEmail(Random random) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(randomString(random, "ab_-1", 1 + random.nextInt(5)));
+        if (random.nextBoolean())
+            sb.append('.').append(randomString(random, "cd_-2", 1 + random.nextInt(5)));
+        sb.append('@').append(randomString(random, "ef-3", 1 + random.nextInt(5)));
+        if (random.nextBoolean())
+            sb.append('.').append(randomString(random, "gh-4", 1 + random.nextInt(5)));
+        return sb.append('.').append(randomString(random, "ijK", 1 + random.nextInt(4))).toString();
+    }
+
+    private static String mutate(Random random, String s, String alphabet) {
+        if (random.nextInt(3) == 0)
+            return s;
+
+        StringBuilder sb = new StringBuilder(s);
+        int pos = random.nextInt(sb.length());
+        char c = alphabet.charAt(random.nextInt(alphabet.length()));
+        switch (random.nextInt(3)) {
+            case 0:
+                sb.setCharAt(pos, c);
+                break;
+            case 1:
+                sb.insert(pos, c);
+                break;
+            default:
+                sb.deleteCharAt(pos);
+        }
+        return sb.toString();
+    }
+
+    private static String randomString(Random random, String alphabet, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import junit.framework.TestCase;
+
+import static net.javaforge.validator4j.PredefinedPatterns.*;
+
+/**
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class PredefinedPatternsTest extends TestCase {
+
+    public void testParameterlessPatternsAreShared() {
+        assertSame(phone(), phone());
+        assertSame(alnum(), alnum());
+        assertSame(alnumWithBlank(), alnumWithBlank());
+        assertSame(numeric(), numeric());
+    }
+
+    public void testParameterisedPatternsAreCachedByArguments() {
+        assertSame(alnumMinMax(1, 10), alnumMinMax(1, 10));
+        assertNotSame(alnumMinMax(1, 10), alnumMinMax(1, 11));
+        assertNotSame(alnumMinMax(1, 10), numericMinMax(1, 10));
+        assertSame(alnumEuropean(SpecialChars.GERMAN), alnumEuropean(SpecialChars.GERMAN));
+        assertNotSame(alnumEuropean(SpecialChars.GERMAN), alnumEuropean(SpecialChars.FRENCH));
+    }
+
+    public void testParameterisedPatterns() {
+        assertTrue(alnumMinMax(1, 3).matcher("a1").matches());
+        assertFalse(alnumMinMax(1, 3).matcher("a123").matches());
+        assertTrue(numericMinMax(2, 2).matcher("12").matches());
+        assertTrue(anyMinMax(0, 3).matcher("a\nb").matches());
+        assertTrue(alnumEuropean(SpecialChars.GERMAN).matcher("Stra\u00DFe").matches());
+        assertFalse(alnumEuropean(SpecialChars.FRENCH).matcher("Stra\u00DFe").matches());
+        assertTrue(alnumEuropeanWithBlankMinMax(SpecialChars.ALL, 1, 20).matcher("\u00C4 \u00E9").matches());
+        assertTrue(phoneMinMax(1, 20).matcher("+49 89 1234").matches());
+    }
+
+    public void testInvalidMinMax() {
+        try {
+            alnumMinMax(5, 1);
+            fail("IllegalArgumentException should be thrown!");
+        } catch (IllegalArgumentException e) {
+            // everything ok
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static net.javaforge.validator4j.PredefinedChecks.alpha;
+
+/**
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class StreamingValidatorTest extends TestCase {
+
+    private static IValidationMessage key = new IValidationMessage() {
+
+        private static final long serialVersionUID = 1L;
+
+        public CharSequence getKey() {
+            return "key";
+        }
+
+        public Severity getSeverity() {
+            return Severity.ERROR;
+        }
+
+        public CharSequence[] getArgs() {
+            return null;
+        }
+    };
+
+    private static final List<String> values = Arrays.asList("a", "1", "b", "2", "c");
+
+    private static StreamingValidator<String> createValidator() {
+        return new StreamingValidator<String>(Validator.of(key, alpha()));
+    }
+
+    public void testEmitsAllTaggedObjects() throws Exception {
+
+        Iterator<Validated<String>> it = createValidator().validate(values);
+        for (int i = 0; i < values.size(); i++) {
+            Validated<String> validated = it.next();
+            assertEquals(i, validated.getIndex());
+            assertEquals(values.get(i), validated.getValue());
+            assertEquals(i % 2 == 0, validated.isValid());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    public void testValidatesOnDemand() throws Exception {
+
+        final int[] pulled = new int[1];
+        final Iterator<String> source = values.iterator();
+        Iterator<Validated<String>> it = createValidator().validate(new Iterator<String>() {
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            public String next() {
+                pulled[0]++;
+                return source.next();
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        });
+
+        assertEquals(0, pulled[0]);
+        it.next();
+        assertEquals(1, pulled[0]);
+        it.next();
+        assertEquals(2, pulled[0]);
+    }
+
+    public void testRouteInvalid() throws Exception {
+
+        final List<Validated<String>> invalid = new ArrayList<Validated<String>>();
+        Iterator<Validated<String>> it = createValidator()
+                .routeInvalidTo(new Consumer<Validated<String>>() {
+                    public void accept(Validated<String> validated) {
+                        invalid.add(validated);
+                    }
+                }).validate(values);
+
+        List<String> valid = new ArrayList<String>();
+        while (it.hasNext())
+            valid.add(it.next().getValue());
+
+        assertEquals(Arrays.asList("a", "b", "c"), valid);
+        assertEquals(2, invalid.size());
+        assertEquals(1, invalid.get(0).getIndex());
+        assertEquals(3, invalid.get(1).getIndex());
+        assertTrue(invalid.get(0).getResult().getMessages().contains(key));
+    }
+
+    public void testDropInvalidStream() throws Exception {
+
+        final AtomicBoolean closed = new AtomicBoolean();
+        Stream<String> source = values.stream().onClose(new Runnable() {
+            public void run() {
+                closed.set(true);
+            }
+        });
+
+        Stream<Validated<String>> stream = createValidator().dropInvalid().validate(source);
+        List<Long> indexes = new ArrayList<Long>();
+        for (Validated<String> validated : stream.collect(Collectors.<Validated<String>>toList()))
+            indexes.add(validated.getIndex());
+
+        assertEquals(Arrays.asList(0L, 2L, 4L), indexes);
+        stream.close();
+        assertTrue(closed.get());
+    }
+
+    public void testConfigurationIsKeptByIterators() throws Exception {
+
+        StreamingValidator<String> v = createValidator().dropInvalid().routeInvalidTo(null);
+        Iterator<Validated<String>> dropping = v.validate(values);
+
+        final List<Validated<String>> invalid = new ArrayList<Validated<String>>();
+        v.routeInvalidTo(new Consumer<Validated<String>>() {
+            public void accept(Validated<String> validated) {
+                invalid.add(validated);
+            }
+        });
+
+        int count = 0;
+        for (; dropping.hasNext(); count++)
+            assertTrue(dropping.next().isValid());
+
+        assertEquals(3, count);
+        assertTrue(invalid.isEmpty());
+    }
+
+}
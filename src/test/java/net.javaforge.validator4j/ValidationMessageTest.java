@@ -48,4 +48,23 @@ public class ValidationMessageTest extends TestCase {
         assertTrue(Keys.KEY1.getArgs().length == 2);
     }
 
+    public void testValueEquality() {
+        IValidationMessage msg1 = PredefinedMessages.IS_NOT_IN_RANGE.withArgs("12", "60");
+        IValidationMessage msg2 = new ValidationMessageAdapter(new StringBuilder("IS_NOT_IN_RANGE"),
+                new StringBuilder("12"), "60");
+
+        assertEquals(msg1, msg2);
+        assertEquals(msg1.hashCode(), msg2.hashCode());
+        assertFalse(msg1.equals(PredefinedMessages.IS_NOT_IN_RANGE.withArgs("12", "61")));
+        assertFalse(msg1.equals(new ValidationMessageAdapter("IS_NOT_IN_RANGE",
+                IValidationMessage.Severity.WARN, "12", "60")));
+        assertEquals("root.IS_NULL", PredefinedMessages.IS_NULL.withPrefixAndArgs("root").getKey());
+
+        ValidationResult vr = new ValidationResult()
+                .addWithPrefix("field", msg1)
+                .addWithPrefix("field", msg2)
+                .addWithPrefix("other", msg2);
+        assertEquals(2, vr.size());
+    }
+
 }
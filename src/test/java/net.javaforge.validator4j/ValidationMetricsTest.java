@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import junit.framework.TestCase;
+
+import static net.javaforge.validator4j.PredefinedChecks.inRange;
+import static net.javaforge.validator4j.PredefinedMessages.IS_NOT_IN_RANGE;
+import static net.javaforge.validator4j.PredefinedMessages.IS_NULL;
+
+/**
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class ValidationMetricsTest extends TestCase {
+
+    public static class Bean {
+
+        private int id;
+
+        private String name;
+
+        public Bean(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static HierarchicalValidator<Bean> validator(ValidationMetrics metrics) {
+        return new HierarchicalValidator<Bean>()
+                .withPrefix("bean")
+                .withListener(metrics)
+                .addFieldValidator("id", Validator.of(IS_NOT_IN_RANGE, inRange(10, 20))
+                        .withListener(metrics))
+                .addFieldValidator("name", Validator.of(IS_NULL, PredefinedChecks.<String>notNull())
+                        .withListener(metrics));
+    }
+
+    public void testRecordsChecksAndFields() throws Exception {
+
+        ValidationMetrics metrics = new ValidationMetrics();
+        HierarchicalValidator<Bean> v = validator(metrics);
+
+        v.validate(new Bean(15, "abc"));
+        v.validate(new Bean(5, "abc"));
+        v.validate(new Bean(25, null));
+
+        ValidationMetrics.Snapshot snapshot = metrics.snapshot();
+
+        ValidationMetrics.Stats range = snapshot.getChecks().get("IS_NOT_IN_RANGE");
+        assertEquals(3, range.getCount());
+        assertEquals(2, range.getFailures());
+
+        ValidationMetrics.Stats isNull = snapshot.getChecks().get("IS_NULL");
+        assertEquals(3, isNull.getCount());
+        assertEquals(1, isNull.getFailures());
+
+        assertEquals(3, snapshot.getFields().get("bean.id").getCount());
+        assertEquals(2, snapshot.getFields().get("bean.id").getFailures());
+        assertEquals(1, snapshot.getFields().get("bean.name").getFailures());
+
+        long bucketed = 0;
+        for (int i = 0; i < ValidationMetrics.BUCKETS; i++)
+            bucketed += range.getBucketCount(i);
+        assertEquals(3, bucketed);
+        assertTrue(range.getPercentileUpperBound(1.0) > 0);
+    }
+
+    public void testCompiledValidatorRecordsFields() throws Exception {
+
+        ValidationMetrics metrics = new ValidationMetrics();
+        IValidator<Bean> v = validator(metrics).compile(Bean.class);
+
+        v.validate(new Bean(5, "abc"));
+
+        assertEquals(1, metrics.snapshot().getFields().get("bean.id").getFailures());
+        assertEquals(0, metrics.snapshot().getFields().get("bean.name").getFailures());
+
+        metrics.reset();
+        assertTrue(metrics.snapshot().getChecks().isEmpty());
+    }
+
+    public void testHistogramBuckets() throws Exception {
+
+        assertEquals(0, ValidationMetrics.bucketOf(0));
+        assertEquals(1, ValidationMetrics.bucketOf(1));
+        assertEquals(2, ValidationMetrics.bucketOf(3));
+        assertEquals(10, ValidationMetrics.bucketOf(1000));
+        assertEquals(ValidationMetrics.BUCKETS - 1, ValidationMetrics.bucketOf(Long.MAX_VALUE));
+
+        assertTrue(1000 < ValidationMetrics.Stats.getBucketUpperBound(10));
+        assertEquals(Long.MAX_VALUE,
+                ValidationMetrics.Stats.getBucketUpperBound(ValidationMetrics.BUCKETS - 1));
+    }
+
+}
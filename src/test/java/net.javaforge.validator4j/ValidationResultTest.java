@@ -0,0 +1,323 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class ValidationResultTest extends TestCase {
+
+    public void testAddWithPrefix() {
+        IValidationMessage msg = new ValidationMessageAdapter("IS_NULL", "a");
+
+        ValidationResult vr = new ValidationResult().addWithPrefix("bean", msg);
+        IValidationMessage prefixed = vr.iterator().next();
+
+        assertEquals("bean.IS_NULL", prefixed.getKey().toString());
+        assertSame(prefixed.getKey(), prefixed.getKey());
+        assertEquals(msg.getSeverity(), prefixed.getSeverity());
+        assertSame(msg.getArgs(), prefixed.getArgs());
+    }
+
+    public void testNestedPrefixesAreFlattened() {
+        IValidationMessage msg = new ValidationMessageAdapter("IS_NULL");
+
+        ValidationResult vr = new ValidationResult().addWithPrefix("child", msg);
+        vr = new ValidationResult().addWithPrefix("parent", vr);
+        vr = new ValidationResult().addWithPrefix("root", vr);
+
+        PrefixedValidationMessage prefixed = (PrefixedValidationMessage) vr.iterator().next();
+        assertEquals("root.parent.child.IS_NULL", prefixed.getKey().toString());
+        assertEquals("root.parent.child", prefixed.getPrefix());
+        assertSame(msg, prefixed.getMessage());
+    }
+
+    public void testPrefixPathsAreShared() {
+        IValidationMessage msg1 = new ValidationMessageAdapter("IS_NULL");
+        IValidationMessage msg2 = new ValidationMessageAdapter("IS_EMPTY");
+
+        ValidationResult vr = new ValidationResult()
+                .addWithPrefix(new StringBuilder("root"),
+                        new ValidationResult().addWithPrefix("field", msg1))
+                .addWithPrefix(new StringBuilder("root"),
+                        new ValidationResult().addWithPrefix("field", msg2));
+
+        PrefixedValidationMessage[] messages =
+                vr.getMessages().toArray(new PrefixedValidationMessage[2]);
+        assertSame(messages[0].getPrefix(), messages[1].getPrefix());
+    }
+
+
+    public void testStacklessValidationException() {
+        ValidationResult vr = new ValidationResult(new ValidationMessageAdapter("IS_NULL"));
+
+        ValidationException e = vr.toValidationException(false);
+        assertSame(vr, e.getValidationResult());
+        assertEquals(0, e.getStackTrace().length);
+        assertTrue(e.getMessage().contains("key=IS_NULL"));
+
+        // the message is rendered on demand
+        vr.add(new ValidationMessageAdapter("IS_NOT_VALID"));
+        assertTrue(e.getMessage().contains("key=IS_NOT_VALID"));
+
+        e.addSuppressed(new RuntimeException());
+        assertEquals(0, e.getSuppressed().length);
+
+        assertTrue(vr.toValidationException().getStackTrace().length > 0);
+
+        try {
+            vr.throwIfNotEmpty(false);
+            fail("ValidationException should be thrown!");
+        } catch (ValidationException expected) {
+            assertEquals(0, expected.getStackTrace().length);
+        }
+    }
+
+    public void testSeverityAndPrefixQueries() {
+        ValidationResult vr = new ValidationResult();
+        for (int i = 0; i < 20; i++) {
+            IValidationMessage.Severity severity = i % 3 == 0
+                    ? IValidationMessage.Severity.WARN : IValidationMessage.Severity.ERROR;
+            vr.addWithPrefix("item" + i, new ValidationMessageAdapter("IS_NULL", severity));
+        }
+
+        assertEquals(7, vr.getMessageCountBySeverity(IValidationMessage.Severity.WARN));
+        assertEquals(13, vr.getMessageCountBySeverity(IValidationMessage.Severity.ERROR));
+        assertTrue(vr.getMessagesBySeverity(IValidationMessage.Severity.INFO).isEmpty());
+
+        Collection<IValidationMessage> warnings =
+                vr.getMessagesBySeverity(IValidationMessage.Severity.WARN);
+        assertEquals(7, warnings.size());
+        assertEquals("item3.IS_NULL",
+                new ArrayList<IValidationMessage>(warnings).get(1).getKey().toString());
+
+        List<IValidationMessage> byPrefix =
+                new ArrayList<IValidationMessage>(vr.getMessagesByPrefix("item1"));
+        assertEquals(11, byPrefix.size());
+        assertEquals("item1.IS_NULL", byPrefix.get(0).getKey().toString());
+        assertEquals("item10.IS_NULL", byPrefix.get(1).getKey().toString());
+        assertTrue(vr.getMessagesByPrefix("other").isEmpty());
+
+        // indexes follow later changes
+        vr.add(new ValidationMessageAdapter("item1x", IValidationMessage.Severity.WARN));
+        assertEquals(12, vr.getMessagesByPrefix("item1").size());
+        assertEquals(8, vr.getMessagesBySeverity(IValidationMessage.Severity.WARN).size());
+        assertEquals(21, vr.size());
+    }
+
+    public void testSeverityQueryReturnsSnapshot() {
+        ValidationResult vr = new ValidationResult()
+                .add(new ValidationMessageAdapter("A", IValidationMessage.Severity.ERROR));
+
+        Collection<IValidationMessage> errors =
+                vr.getMessagesBySeverity(IValidationMessage.Severity.ERROR);
+        vr.add(new ValidationMessageAdapter("B", IValidationMessage.Severity.ERROR));
+        assertEquals(1, errors.size());
+        assertEquals(2, vr.getMessagesBySeverity(IValidationMessage.Severity.ERROR).size());
+    }
+
+    public void testFrozenResultIsQueriedConcurrently() throws Exception {
+        final ValidationResult.Builder builder = ValidationResult.builder();
+        for (int i = 0; i < 100; i++) {
+            builder.add(new ValidationMessageAdapter("item" + i, i % 2 == 0
+                    ? IValidationMessage.Severity.WARN : IValidationMessage.Severity.ERROR));
+        }
+        final ValidationResult vr = builder.build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    public Integer call() {
+                        return vr.getMessagesBySeverity(IValidationMessage.Severity.WARN).size()
+                                + vr.getMessagesByPrefix("item1").size();
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures)
+                assertEquals(50 + 11, future.get().intValue());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testDuplicatesAreIgnored() {
+        IValidationMessage msg = new ValidationMessageAdapter("IS_NULL");
+        ValidationResult vr = new ValidationResult();
+        for (int i = 0; i < 20; i++)
+            vr.add(new ValidationMessageAdapter("KEY" + i), msg);
+
+        assertEquals(21, vr.size());
+        assertEquals(21, new ValidationResult(vr).add(vr).size());
+
+        try {
+            ValidationResult.unmodifiableEmpty().add(msg);
+            fail("UnsupportedOperationException should be thrown!");
+        } catch (UnsupportedOperationException e) {
+            // everything ok
+        }
+    }
+
+    public void testBuilder() {
+        IValidationMessage msg = new ValidationMessageAdapter("IS_NULL");
+
+        ValidationResult.Builder builder = ValidationResult.builder();
+        assertSame(ValidationResult.unmodifiableEmpty(), builder.build());
+
+        ValidationResult child = new ValidationResult().addWithPrefix("child", msg);
+        builder.add(msg)
+                .add(child)
+                .addWithPrefix("root", child)
+                .addWithPrefix("root", child);
+        assertEquals(3, builder.size());
+
+        ValidationResult vr = builder.build();
+        assertFalse(vr.isModifiable());
+        assertEquals(3, vr.size());
+        assertEquals("root.child.IS_NULL", vr.getMessagesByPrefix("root").iterator().next()
+                .getKey().toString());
+        assertTrue(builder.isEmpty());
+
+        try {
+            vr.add(new ValidationMessageAdapter("IS_NOT_VALID"));
+            fail("UnsupportedOperationException should be thrown!");
+        } catch (UnsupportedOperationException e) {
+            // everything ok
+        }
+
+        // the builder may be reused, the built result isn't affected
+        builder.add(new ValidationMessageAdapter("IS_NOT_VALID"));
+        assertEquals(3, vr.size());
+        assertTrue(new ValidationResult(vr).isModifiable());
+    }
+
+    public void testBinaryForm() throws Exception {
+        ValidationResult vr = new ValidationResult()
+                .add(PredefinedMessages.IS_NULL)
+                .add(new ValidationMessageAdapter("CUSTOM", IValidationMessage.Severity.WARN,
+                        "a", null, "\u00e4"))
+                .add(new ValidationMessageAdapter("NO_ARGS", (IValidationMessage.Severity) null,
+                        (CharSequence[]) null));
+        for (int i = 0; i < 200; i++)
+            vr.addWithPrefix("items[" + i + "]",
+                    PredefinedMessages.IS_NOT_IN_RANGE.withArgs("1", "9"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        vr.writeTo(new DataOutputStream(bytes));
+        assertBinaryFormEquals(vr, ValidationResult.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.size());
+        vr.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        assertBinaryFormEquals(vr, ValidationResult.readFrom(buffer));
+
+        ValidationResult frozen = ValidationResult.builder().add(vr).build();
+        assertBinaryFormEquals(frozen, deserialize(serialize(frozen)));
+        assertBinaryFormEquals(vr, deserialize(serialize(vr)));
+        assertSame(ValidationResult.unmodifiableEmpty(),
+                deserialize(serialize(ValidationResult.unmodifiableEmpty())));
+    }
+
+    public void testBinaryFormRejectsTruncatedAndCorruptInput() throws Exception {
+        ValidationResult vr = new ValidationResult()
+                .add(new ValidationMessageAdapter("CUSTOM", IValidationMessage.Severity.WARN, "a"))
+                .addWithPrefix("items[0]", PredefinedMessages.IS_NULL);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        vr.writeTo(new DataOutputStream(out));
+        byte[] bytes = out.toByteArray();
+
+        for (int length = 0; length < bytes.length; length++)
+            assertInvalid(Arrays.copyOf(bytes, length));
+
+        // huge dictionary size, string length, message count and argument count
+        assertInvalid(new byte[]{1, 0, -1, -1, -1, -1, 7});
+        assertInvalid(new byte[]{1, 0, 1, -1, -1, -1, -1, 7});
+        assertInvalid(new byte[]{1, 0, 0, -1, -1, -1, -1, 7});
+        assertInvalid(new byte[]{1, 0, 1, 1, 65, 1, 0, 1, 0, -1, -1, -1, -1, 7});
+    }
+
+    private static void assertInvalid(byte[] bytes) {
+        try {
+            ValidationResult.readFrom(ByteBuffer.wrap(bytes));
+            fail("IllegalArgumentException should be thrown for " + Arrays.toString(bytes) + "!");
+        } catch (IllegalArgumentException e) {
+            // everything ok
+        }
+
+        try {
+            ValidationResult.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+            fail("IOException should be thrown for " + Arrays.toString(bytes) + "!");
+        } catch (IOException e) {
+            // everything ok
+        }
+    }
+
+    private static void assertBinaryFormEquals(ValidationResult expected,
+                                               ValidationResult actual) {
+        assertEquals(expected.isModifiable(), actual.isModifiable());
+        assertEquals(expected.size(), actual.size());
+
+        Iterator<IValidationMessage> it = actual.iterator();
+        for (Iterator<IValidationMessage> e = expected.iterator(); e.hasNext(); ) {
+            IValidationMessage msg = e.next();
+            IValidationMessage read = it.next();
+            if (msg instanceof PredefinedMessages)
+                assertSame(msg, read);
+            assertEquals(String.valueOf(msg.getKey()), String.valueOf(read.getKey()));
+            assertEquals(msg.getSeverity(), read.getSeverity());
+            assertEquals(Arrays.toString(msg.getArgs()), Arrays.toString(read.getArgs()));
+        }
+    }
+
+    private static byte[] serialize(Object obj) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(obj);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static ValidationResult deserialize(byte[] bytes) throws Exception {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        return (ValidationResult) in.readObject();
+    }
+}
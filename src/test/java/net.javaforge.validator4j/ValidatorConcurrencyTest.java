@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static net.javaforge.validator4j.PredefinedChecks.inRange;
+import static net.javaforge.validator4j.PredefinedMessages.IS_NOT_IN_RANGE;
+import static net.javaforge.validator4j.PredefinedMessages.IS_NULL;
+
+/**
+ * Multi-thread harness sharing built validators between threads.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public class ValidatorConcurrencyTest extends TestCase {
+
+    private static final int THREADS = 8;
+
+    private static final int ITERATIONS = 50000;
+
+    public static class Bean {
+
+        private int id;
+
+        private String name;
+
+        public Bean(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Validator published to the reader threads through a plain (racy) field.
+     */
+    private IValidator<Integer> published;
+
+    @SuppressWarnings("unchecked")
+    public void testRacilyPublishedValidatorIsFullyConfigured() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> readers = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < THREADS - 1; t++) {
+                readers.add(executor.submit(new Callable<Integer>() {
+                    public Integer call() throws Exception {
+                        start.await();
+                        int seen = 0;
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            IValidator<Integer> v = published;
+                            if (v == null)
+                                continue;
+
+                            seen++;
+                            assertTrue(v.validate(15).isEmpty());
+                            assertEquals("range.IS_NOT_IN_RANGE",
+                                    v.validate(i % 2 == 0 ? 5 : 25).iterator().next().getKey().toString());
+                        }
+                        return seen;
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (int i = 0; i < ITERATIONS; i++) {
+                published = new Validator<Integer>(IS_NOT_IN_RANGE, inRange(10, 20))
+                        .withPrefix("range")
+                        .build();
+            }
+
+            for (Future<Integer> reader : readers)
+                reader.get();
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testSharedHierarchicalValidator() throws Exception {
+
+        final IValidator<Bean> validator = new HierarchicalValidator<Bean>()
+                .withPrefix("bean")
+                .addFieldValidator("id", Validator.of(IS_NOT_IN_RANGE, inRange(10, 20)))
+                .addFieldValidator("name", Validator.of(IS_NULL, PredefinedChecks.<String>notNull()))
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> workers = new ArrayList<Future<Void>>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            int id = i % 30;
+                            String name = i % 3 == 0 ? null : "name";
+                            ValidationResult result = validator.validate(new Bean(id, name));
+
+                            int expected = (id < 10 || id > 20 ? 1 : 0) + (name == null ? 1 : 0);
+                            assertEquals(expected, result.size());
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (Future<Void> worker : workers)
+                worker.get();
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -55,6 +55,48 @@ public class ValidatorTest extends TestCase {
 
     }
 
+    public void testBuiltValidatorIgnoresLaterChanges() throws Exception {
+
+        Validator<Integer> validator = Validator.of(key, inRange(1, 5));
+        IValidator<Integer> built = validator.build();
+
+        validator.addChecks(key, gt(3));
+        validator.withPrefix("prefix");
+
+        assertTrue(built.validate(2).isEmpty());
+        assertFalse(validator.validate(2).isEmpty());
+        assertEquals("prefix.key", validator.validate(2).iterator().next().getKey().toString());
+    }
+
+    public void testSameCheckWithDifferentMessages() throws Exception {
+
+        IValidationCheck<Integer> check = gt(3);
+        Validator<Integer> validator = Validator.of(key, check)
+                .addChecks(PredefinedMessages.IS_NOT_IN_RANGE, check);
+        validator.setCancelOnFirstFailedCheck(false);
+
+        ValidationResult result = validator.validate(2);
+        assertEquals(2, result.size());
+        assertTrue(result.toString().contains("IS_NOT_IN_RANGE"));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testAdaptiveOrderingKeepsResults() throws Exception {
+
+        Validator<Integer> plain = new Validator<Integer>()
+                .addChecks(key, notNull())
+                .addCommutativeChecks(PredefinedMessages.IS_NOT_IN_RANGE, gt(10), lt(90), neq(50));
+        Validator<Integer> adaptive = new Validator<Integer>()
+                .addChecks(key, notNull())
+                .addCommutativeChecks(PredefinedMessages.IS_NOT_IN_RANGE, gt(10), lt(90), neq(50))
+                .withAdaptiveOrdering();
+
+        for (int i = 0; i < 100000; i++) {
+            int value = i % 100;
+            assertEquals(plain.validate(value).toString(), adaptive.validate(value).toString());
+        }
+    }
+
     public void testValidateNotNull() throws Exception {
 
         try {
@@ -144,4 +186,20 @@ public class ValidatorTest extends TestCase {
 
     }
 
+    public void testValidValueReturnsSharedEmptyResult() throws Exception {
+
+        ValidationResult vr = Validator.of(key, notNull()).validate("test");
+        assertSame(ValidationResult.unmodifiableEmpty(), vr);
+
+        try {
+            vr.add(key);
+            fail("unmodifiable validation result should not accept messages!");
+        } catch (UnsupportedOperationException e) {
+            // everything ok
+        }
+
+        assertTrue(ValidationResult.unmodifiableEmpty().isEmpty());
+        assertNotSame(vr, Validator.of(key, notNull()).validate(null));
+    }
+
 }
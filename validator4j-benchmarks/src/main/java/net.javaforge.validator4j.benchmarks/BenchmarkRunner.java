@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Entry point of the benchmark jar. Runs the selected benchmarks (all by default) with the GC
+ * profiler attached, so every benchmark reports its allocation rate next to the throughput, and
+ * writes the results as JSON (<tt>jmh-result.json</tt> by default) to compare releases.
+ * <br><br>
+ * All standard JMH command line options are accepted and take precedence, e.g.:
+ * <p/>
+ * <pre>
+ * java -jar target/benchmarks.jar ValidatorBenchmark -rff target/validator.json
+ * </pre>
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        // invisible constructor
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+
+        OptionsBuilder builder = new OptionsBuilder();
+        if (!hasGCProfiler(cmdOptions))
+            builder.addProfiler(GCProfiler.class);
+
+        if (!cmdOptions.getResultFormat().hasValue())
+            builder.resultFormat(ResultFormatType.JSON);
+
+        if (!cmdOptions.getResult().hasValue())
+            builder.result("jmh-result.json");
+
+        Options options = builder.parent(cmdOptions).build();
+        new Runner(options).run();
+    }
+
+    private static boolean hasGCProfiler(Options options) {
+        for (ProfilerConfig profiler : options.getProfilers()) {
+            if ("gc".equals(profiler.getKlass())
+                    || GCProfiler.class.getName().equals(profiler.getKlass()))
+                return true;
+        }
+        return false;
+    }
+}
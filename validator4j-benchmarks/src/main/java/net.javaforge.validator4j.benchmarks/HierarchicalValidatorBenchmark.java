@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j.benchmarks;
+
+import net.javaforge.validator4j.HierarchicalValidator;
+import net.javaforge.validator4j.IValidator;
+import net.javaforge.validator4j.PredefinedChecks;
+import net.javaforge.validator4j.ValidationResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.javaforge.validator4j.PredefinedChecks.*;
+import static net.javaforge.validator4j.PredefinedMessages.*;
+
+/**
+ * Benchmarks {@link HierarchicalValidator#validate(Object)} and the validator compiled by
+ * {@link HierarchicalValidator#compile(Class)} on valid and invalid beans of several nesting
+ * depths. The checks used don't allocate, so the allocation rate of the valid
+ * case is the allocation rate of the validator itself (expected to be zero).
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HierarchicalValidatorBenchmark {
+
+    public static class Node {
+
+        public Node(String name, int value, Node child) {
+            this.name = name;
+            this.value = value;
+            this.child = child;
+        }
+
+        public String name;
+
+        public int value;
+
+        public Node child;
+    }
+
+    @Param({"1", "3", "5"})
+    public int depth;
+
+    @Param({"true", "false"})
+    public boolean valid;
+
+    private HierarchicalValidator<Node> validator;
+
+    private IValidator<Node> compiledValidator;
+
+    private Node bean;
+
+    @Setup
+    public void setup() {
+        this.validator = nodeValidator(this.depth).withPrefix("root");
+        this.compiledValidator = this.validator.compile(Node.class);
+        this.bean = node(this.depth, this.valid);
+    }
+
+    @Benchmark
+    public ValidationResult validate() {
+        return this.validator.validate(this.bean);
+    }
+
+    @Benchmark
+    public ValidationResult validateCompiled() {
+        return this.compiledValidator.validate(this.bean);
+    }
+
+    static HierarchicalValidator<Node> nodeValidator(int depth) {
+        HierarchicalValidator<Node> v = new HierarchicalValidator<Node>()
+                .withPreValidator(IS_REQUIRED, PredefinedChecks.<Node>notNull())
+                .addFieldValidator("name", IS_NOT_VALID, notNull(), alphanumeric())
+                .addFieldValidator("value", IS_NOT_IN_RANGE, inRange(0, 100));
+
+        if (depth > 1)
+            v.addFieldValidator("child", nodeValidator(depth - 1));
+
+        return v;
+    }
+
+    static Node node(int depth, boolean valid) {
+        Node child = depth > 1 ? node(depth - 1, valid) : null;
+        return valid ? new Node("node" + depth, 10 * depth, child)
+                : new Node("node-" + depth + "!", 1000 * depth, child);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j.benchmarks;
+
+import net.javaforge.validator4j.IValidationCheck;
+import net.javaforge.validator4j.PredefinedChecks;
+import net.javaforge.validator4j.PredefinedPatterns;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks matching of the {@link PredefinedPatterns#email()} and
+ * {@link PredefinedPatterns#phone()} patterns against valid and invalid input, compared to the
+ * hand-written {@link PredefinedChecks#email()} and {@link PredefinedChecks#phone()} checks.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PredefinedPatternsBenchmark {
+
+    private Pattern email;
+
+    private Pattern phone;
+
+    private IValidationCheck<CharSequence> emailCheck;
+
+    private IValidationCheck<CharSequence> phoneCheck;
+
+    private String validEmail;
+
+    private String invalidEmail;
+
+    private String validPhone;
+
+    private String invalidPhone;
+
+    @Setup
+    public void setup() {
+        this.email = PredefinedPatterns.email();
+        this.phone = PredefinedPatterns.phone();
+        this.emailCheck = PredefinedChecks.email();
+        this.phoneCheck = PredefinedChecks.phone();
+
+        this.validEmail = "first.last-name_1@mail.sub-domain.example.com";
+        this.invalidEmail = "first.last-name_1@mail.sub-domain.example.c0m";
+        this.validPhone = "+49 (0)89 / 123 456-789";
+        this.invalidPhone = "+49 (0)89 / 123 456-789 ext. 12";
+    }
+
+    @Benchmark
+    public boolean emailValid() {
+        return this.email.matcher(this.validEmail).matches();
+    }
+
+    @Benchmark
+    public boolean emailInvalid() {
+        return this.email.matcher(this.invalidEmail).matches();
+    }
+
+    @Benchmark
+    public boolean phoneValid() {
+        return this.phone.matcher(this.validPhone).matches();
+    }
+
+    @Benchmark
+    public boolean phoneInvalid() {
+        return this.phone.matcher(this.invalidPhone).matches();
+    }
+
+    @Benchmark
+    public boolean emailCheckValid() {
+        return this.emailCheck.isSatisfied(this.validEmail);
+    }
+
+    @Benchmark
+    public boolean emailCheckInvalid() {
+        return this.emailCheck.isSatisfied(this.invalidEmail);
+    }
+
+    @Benchmark
+    public boolean phoneCheckValid() {
+        return this.phoneCheck.isSatisfied(this.validPhone);
+    }
+
+    @Benchmark
+    public boolean phoneCheckInvalid() {
+        return this.phoneCheck.isSatisfied(this.invalidPhone);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j.benchmarks;
+
+import net.javaforge.validator4j.ValidationException;
+import net.javaforge.validator4j.ValidationMessageAdapter;
+import net.javaforge.validator4j.ValidationResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks construction and throwing of {@link ValidationException}s.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationExceptionBenchmark {
+
+    @Param({"1", "10"})
+    public int messages;
+
+    private ValidationResult result;
+
+    @Setup
+    public void setup() {
+        this.result = new ValidationResult();
+        for (int i = 0; i < this.messages; i++)
+            this.result.add(new ValidationMessageAdapter("IS_NOT_VALID_" + i, "arg" + i));
+    }
+
+    @Benchmark
+    public ValidationException construct() {
+        return new ValidationException(this.result);
+    }
+
+    @Benchmark
+    public ValidationException throwIfNotEmpty() {
+        try {
+            this.result.throwIfNotEmpty();
+            return null;
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j.benchmarks;
+
+import net.javaforge.validator4j.IValidationMessage;
+import net.javaforge.validator4j.ValidationResult;
+import net.javaforge.validator4j.ValidationMessageAdapter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks chains of {@link ValidationResult#addWithPrefix(CharSequence, ValidationResult)}
+ * as produced by nested validators, including reading the resulting message keys.
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationResultBenchmark {
+
+    @Param({"1", "3", "5"})
+    public int depth;
+
+    @Param({"1", "10"})
+    public int messages;
+
+    private IValidationMessage[] leafMessages;
+
+    private String[] prefixes;
+
+    @Setup
+    public void setup() {
+        this.leafMessages = new IValidationMessage[this.messages];
+        for (int i = 0; i < this.messages; i++)
+            this.leafMessages[i] = new ValidationMessageAdapter("IS_NOT_VALID_" + i, "arg" + i);
+
+        this.prefixes = new String[this.depth];
+        for (int i = 0; i < this.depth; i++)
+            this.prefixes[i] = "level" + i;
+    }
+
+    @Benchmark
+    public ValidationResult addWithPrefixChain() {
+        ValidationResult result = new ValidationResult(this.leafMessages);
+        for (String prefix : this.prefixes)
+            result = new ValidationResult().addWithPrefix(prefix, result);
+
+        return result;
+    }
+
+    @Benchmark
+    public void addWithPrefixChainAndReadKeys(Blackhole bh) {
+        for (IValidationMessage msg : addWithPrefixChain().getMessages())
+            bh.consume(msg.getKey().toString());
+    }
+}
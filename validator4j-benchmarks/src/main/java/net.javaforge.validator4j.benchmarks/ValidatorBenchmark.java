@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013 [name of copyright owner]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.javaforge.validator4j.benchmarks;
+
+import net.javaforge.validator4j.PredefinedChecks;
+import net.javaforge.validator4j.ValidationResult;
+import net.javaforge.validator4j.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.javaforge.validator4j.PredefinedChecks.*;
+import static net.javaforge.validator4j.PredefinedMessages.*;
+
+/**
+ * Benchmarks {@link Validator#validate(Object)} on valid and invalid values in both
+ * cancel-on-first-failed-check modes. The checks used don't allocate, so the allocation rate of
+ * the valid case is the allocation rate of the validator itself (expected to be zero).
+ *
+ * @author Maxim Kalina
+ * @version $Id$
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cancelOnFirstFailedCheck;
+
+    private Validator<String> validator;
+
+    private String validValue;
+
+    private String invalidValue;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        this.validator = new Validator<String>()
+                .addChecks(IS_NULL, PredefinedChecks.<String>notNull())
+                .addChecks(IS_EMPTY, notBlank())
+                .addChecks(IS_NOT_ALPHA, alpha())
+                .addChecks(IS_NOT_ALPHANUMERIC, alphanumeric());
+        this.validator.setCancelOnFirstFailedCheck(this.cancelOnFirstFailedCheck);
+
+        this.validValue = "validator";
+        this.invalidValue = "4!";
+    }
+
+    @Benchmark
+    public ValidationResult validateValid() {
+        return this.validator.validate(this.validValue);
+    }
+
+    @Benchmark
+    public ValidationResult validateInvalid() {
+        return this.validator.validate(this.invalidValue);
+    }
+}